@@ -0,0 +1,17 @@
+package com.trello.app_trello.BuissnessLogic;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Card asignada a un usuario, con el tablero y la lista donde está
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssignedCard {
+    private String boardId;
+    private String boardName;
+    private String listId;
+    private String listTitle;
+    private Card card;
+}
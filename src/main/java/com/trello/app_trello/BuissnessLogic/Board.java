@@ -1,14 +1,55 @@
 package com.trello.app_trello.BuissnessLogic;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.util.ArrayList;
-import java.util.Map;
 
 @Data
 public class Board {
     private String id;
     private String name;
     private String owner;
-    private ArrayList<Map<String, Object>> lists;
+    private ArrayList<List> lists;
+
+    // Índice título -> posición en lists, armado a demanda por BoardItems.findList.
+    // No se serializa; reemplazar las listas lo descarta.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient BoardItems.TitleIndex titleIndex;
+
+    // Versión del almacenamiento con la que se leyó (en Firestore, el update time del documento
+    // en microsegundos); 0 si no se conoce. No se serializa.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient long storeVersion;
+
+    public void setLists(ArrayList<List> lists) {
+        this.lists = lists;
+        this.titleIndex = null;
+    }
+
+    public long storeVersion() {
+        return storeVersion;
+    }
+
+    public void storeVersion(long storeVersion) {
+        this.storeVersion = storeVersion;
+    }
+
+    BoardItems.TitleIndex titleIndex() {
+        return titleIndex;
+    }
+
+    void titleIndex(BoardItems.TitleIndex titleIndex) {
+        this.titleIndex = titleIndex;
+    }
 }
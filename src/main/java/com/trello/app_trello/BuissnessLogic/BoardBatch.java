@@ -0,0 +1,13 @@
+package com.trello.app_trello.BuissnessLogic;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+
+// Operaciones a aplicar en orden con una sola lectura y una sola escritura.
+// atomic = true: si alguna falla no se escribe ninguna.
+@Data
+public class BoardBatch {
+    private ArrayList<BoardOperation> operations;
+    private boolean atomic;
+}
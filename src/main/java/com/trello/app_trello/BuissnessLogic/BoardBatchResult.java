@@ -0,0 +1,27 @@
+package com.trello.app_trello.BuissnessLogic;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// applied = false solo en un batch atómico con alguna operación fallida
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardBatchResult {
+    private boolean applied;
+    private List<OperationResult> results;
+
+    // status sigue los códigos HTTP (200, 400, 404, 409); id es la lista o card afectada
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OperationResult {
+        private int index;
+        private int status;
+        private String id;
+        private String message;
+    }
+}
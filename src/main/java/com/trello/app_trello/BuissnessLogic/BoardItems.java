@@ -0,0 +1,210 @@
+package com.trello.app_trello.BuissnessLogic;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+// Operaciones sobre las listas y cards de un Board.
+// Cada lista y card tiene un ID estable y una clave de orden (ver OrderKeys).
+// Agregar, quitar o renombrar listas pasa por acá para mantener el índice por título del tablero.
+public final class BoardItems {
+
+    private BoardItems() {
+    }
+
+    public static String newId() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    // Listas del tablero; las inicializa si es null
+    public static ArrayList<List> lists(Board board) {
+        if (board.getLists() == null) {
+            board.setLists(new ArrayList<>());
+        }
+        return board.getLists();
+    }
+
+    // Cards de la lista; las inicializa si es null
+    public static ArrayList<Card> cards(List list) {
+        if (list.getCards() == null) {
+            list.setCards(new ArrayList<>());
+        }
+        return list.getCards();
+    }
+
+    // Búsqueda por título con el índice del tablero (la primera si hay títulos repetidos)
+    public static Optional<List> findList(Board board, String title) {
+        ArrayList<List> lists = lists(board);
+        TitleIndex index = titleIndex(board, lists);
+        Integer position = index.get(title);
+        if (position != null && title.equals(lists.get(position).getTitle())) {
+            return Optional.of(lists.get(position));
+        }
+        if (position == null) {
+            return Optional.empty();
+        }
+        // Un título cambió sin pasar por acá: se rearma el índice
+        board.titleIndex(null);
+        return findList(board, title);
+    }
+
+    public static Optional<List> findListById(Board board, String listId) {
+        for (List list : lists(board)) {
+            if (listId.equals(list.getId())) {
+                return Optional.of(list);
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Lista que contiene la card con ese ID
+    public static Optional<List> findListOfCard(Board board, String cardId) {
+        for (List list : lists(board)) {
+            if (indexOfCard(list, cardId) >= 0) {
+                return Optional.of(list);
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Posición en la lista de la card con ese ID, o -1
+    public static int indexOfCard(List list, String cardId) {
+        ArrayList<Card> cards = cards(list);
+        for (int i = 0; i < cards.size(); i++) {
+            if (cardId.equals(cards.get(i).getId())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static void addList(Board board, List list) {
+        ArrayList<List> lists = lists(board);
+        TitleIndex index = titleIndex(board, lists);
+        lists.add(list);
+        index.add(list.getTitle(), lists.size() - 1);
+    }
+
+    // Devuelve true si quitó alguna
+    public static boolean removeLists(Board board, Predicate<List> match) {
+        boolean removed = lists(board).removeIf(match);
+        if (removed) {
+            board.titleIndex(null);
+        }
+        return removed;
+    }
+
+    // El índice se descarta: el título viejo puede seguir en otra lista y el nuevo no estaba
+    public static void renameList(Board board, List list, String title) {
+        list.setTitle(title);
+        board.titleIndex(null);
+    }
+
+    // Clave de orden de la última lista o card, o null si no hay ninguna
+    public static String lastListPosition(Board board) {
+        ArrayList<List> lists = lists(board);
+        return lists.isEmpty() ? null : lists.get(lists.size() - 1).getPosition();
+    }
+
+    public static String lastCardPosition(List list) {
+        ArrayList<Card> cards = cards(list);
+        return cards.isEmpty() ? null : cards.get(cards.size() - 1).getPosition();
+    }
+
+    public static int cardCount(Board board) {
+        int count = 0;
+        for (List list : lists(board)) {
+            count += cards(list).size();
+        }
+        return count;
+    }
+
+    public static BoardSummary summarize(Board board) {
+        return new BoardSummary(board.getId(), board.getName(), board.getOwner(),
+                lists(board).size(), cardCount(board));
+    }
+
+    // Asigna ID y clave de orden a listas y cards que no los tengan (tableros anteriores).
+    // Un ID repetido (p. ej. cards copiadas en un PUT del tablero) se reemplaza en todas las
+    // apariciones menos la primera: los IDs de listas y de cards son únicos en el tablero.
+    // El orden del array manda: una clave que no respeta ese orden, o que no es válida
+    // (ver OrderKeys.isValid, p. ej. una que mandó el cliente), se reemplaza.
+    // Devuelve true si cambió algo.
+    public static boolean ensureIds(Board board) {
+        boolean changed = false;
+        Set<String> listIds = new HashSet<>();
+        Set<String> cardIds = new HashSet<>();
+        String previousList = null;
+        for (List list : lists(board)) {
+            if (list.getId() == null || list.getId().isEmpty() || !listIds.add(list.getId())) {
+                list.setId(newId());
+                changed = true;
+            }
+            if (!inOrder(list.getPosition(), previousList)) {
+                list.setPosition(OrderKeys.after(previousList));
+                changed = true;
+            }
+            previousList = list.getPosition();
+
+            String previousCard = null;
+            for (Card card : cards(list)) {
+                if (card.getId() == null || card.getId().isEmpty() || !cardIds.add(card.getId())) {
+                    card.setId(newId());
+                    changed = true;
+                }
+                if (!inOrder(card.getPosition(), previousCard)) {
+                    card.setPosition(OrderKeys.after(previousCard));
+                    changed = true;
+                }
+                previousCard = card.getPosition();
+            }
+        }
+        return changed;
+    }
+
+    // --- Métodos privados ---
+    private static boolean inOrder(String position, String previousPosition) {
+        return OrderKeys.isValid(position) && (previousPosition == null || position.compareTo(previousPosition) > 0);
+    }
+
+    // Índice vigente; se rearma si falta o si la cantidad de listas ya no coincide
+    // (alguien agregó o quitó listas sin pasar por acá)
+    private static TitleIndex titleIndex(Board board, ArrayList<List> lists) {
+        TitleIndex index = board.titleIndex();
+        if (index != null && index.size == lists.size()) {
+            return index;
+        }
+        index = new TitleIndex(new HashMap<>(Math.max(16, lists.size() * 2)));
+        for (int i = 0; i < lists.size(); i++) {
+            index.add(lists.get(i).getTitle(), i);
+        }
+        board.titleIndex(index);
+        return index;
+    }
+
+    // Título -> posición de la primera lista con ese título, y cuántas listas cubre
+    static final class TitleIndex {
+        private final Map<String, Integer> positions;
+        private int size;
+
+        private TitleIndex(Map<String, Integer> positions) {
+            this.positions = positions;
+        }
+
+        private Integer get(String title) {
+            return positions.get(title);
+        }
+
+        private void add(String title, int position) {
+            if (title != null) {
+                positions.putIfAbsent(title, position);
+            }
+            size = position + 1;
+        }
+    }
+}
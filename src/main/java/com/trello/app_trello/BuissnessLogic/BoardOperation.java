@@ -0,0 +1,33 @@
+package com.trello.app_trello.BuissnessLogic;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+// Una operación dentro de un batch. Las listas se identifican por listId o listTitle,
+// las cards por cardId (o cardTitle al eliminar). Los campos que no usa el tipo se ignoran.
+@Data
+public class BoardOperation {
+
+    public enum Type {
+        @JsonProperty("addCard") ADD_CARD,
+        @JsonProperty("removeCard") REMOVE_CARD,
+        @JsonProperty("moveCard") MOVE_CARD,
+        @JsonProperty("addList") ADD_LIST,
+        @JsonProperty("removeList") REMOVE_LIST
+    }
+
+    private Type type;
+    private String listId;
+    private String listTitle;
+    private String cardId;
+    private String cardTitle;
+    // addCard: la card a crear
+    private Card card;
+    // addList: título de la lista nueva
+    private String title;
+    // moveCard: lista destino y, opcionalmente, la card antes o después de la cual queda (ninguna: al final)
+    private String targetListId;
+    private String targetListTitle;
+    private String beforeCardId;
+    private String afterCardId;
+}
@@ -0,0 +1,17 @@
+package com.trello.app_trello.BuissnessLogic;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Vista liviana de un tablero para listados: sin listas ni cards
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardSummary {
+    private String id;
+    private String name;
+    private String owner;
+    private int listCount;
+    private int cardCount;
+}
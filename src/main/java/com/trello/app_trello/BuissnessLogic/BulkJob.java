@@ -0,0 +1,25 @@
+package com.trello.app_trello.BuissnessLogic;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Estado de una operación masiva sobre los tableros de un usuario.
+// operation: delete | transfer | archive; status: running | completed | failed.
+// total se conoce apenas empieza (0 hasta entonces); processed son los tableros ya confirmados.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkJob {
+    private String id;
+    private String operation;
+    private String owner;
+    private String status;
+    private int total;
+    private int processed;
+    private String error;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
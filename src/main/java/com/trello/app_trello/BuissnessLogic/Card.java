@@ -6,7 +6,10 @@ import java.util.ArrayList;
 
 @Data
 public class Card {
+    private String id;
     private String title;
     private String description;
     private ArrayList<String> assignedUsers;
+    // Clave de orden fraccionaria (ver OrderKeys)
+    private String position;
 }
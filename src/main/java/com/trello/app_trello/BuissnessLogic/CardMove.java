@@ -0,0 +1,13 @@
+package com.trello.app_trello.BuissnessLogic;
+
+import lombok.Data;
+
+// Destino de una card movida: la lista (por listId o listTitle) y el lugar, antes de
+// beforeCardId o después de afterCardId. Sin ninguno de los dos queda al final.
+@Data
+public class CardMove {
+    private String listId;
+    private String listTitle;
+    private String beforeCardId;
+    private String afterCardId;
+}
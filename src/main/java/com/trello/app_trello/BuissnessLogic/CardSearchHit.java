@@ -0,0 +1,18 @@
+package com.trello.app_trello.BuissnessLogic;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resultado de la búsqueda de cards: la card con el tablero y la lista donde está
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardSearchHit {
+    private String boardId;
+    private String boardName;
+    private String listId;
+    private String listTitle;
+    private Card card;
+    private double score;
+}
@@ -7,6 +7,9 @@ import java.util.ArrayList;
 
 @Data
 public class List {
+    private String id;
     private String title;
     private ArrayList<Card> cards;
+    // Clave de orden fraccionaria (ver OrderKeys)
+    private String position;
 }
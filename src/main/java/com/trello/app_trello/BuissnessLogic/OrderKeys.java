@@ -0,0 +1,78 @@
+package com.trello.app_trello.BuissnessLogic;
+
+// Claves de orden fraccionarias: strings en base 62 que se comparan lexicográficamente.
+// Siempre existe una clave entre dos claves distintas, así que insertar o mover un
+// elemento solo cambia la clave de ese elemento, nunca la de sus vecinos.
+public final class OrderKeys {
+
+    private static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+
+    private OrderKeys() {
+    }
+
+    // Clave para agregar al final (last == null: lista vacía)
+    public static String after(String last) {
+        return between(last, null);
+    }
+
+    // Clave para agregar al principio (first == null: lista vacía)
+    public static String before(String first) {
+        return between(null, first);
+    }
+
+    // Una clave válida no es vacía, usa solo dígitos base 62 y no termina en el dígito mínimo:
+    // así siempre hay lugar antes (no hay ninguna clave entre "A" y "A0", ni antes de "0").
+    // Las claves que llegan del cliente se validan con esto (ver BoardItems.ensureIds).
+    public static boolean isValid(String key) {
+        if (key == null || key.isEmpty() || key.charAt(key.length() - 1) == DIGITS.charAt(0)) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (DIGITS.indexOf(key.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Clave válida estrictamente entre lower y upper; null significa "sin límite".
+    public static String between(String lower, String upper) {
+        if (lower != null && !isValid(lower) || upper != null && !isValid(upper)) {
+            throw new IllegalArgumentException("Clave de orden inválida: " + (lower != null && !isValid(lower) ? lower : upper));
+        }
+        if (lower != null && upper != null && lower.compareTo(upper) >= 0) {
+            throw new IllegalArgumentException("Claves de orden fuera de secuencia: " + lower + " >= " + upper);
+        }
+
+        StringBuilder key = new StringBuilder();
+        String high = upper;
+        for (int i = 0; ; i++) {
+            int lo = lower != null && i < lower.length() ? digit(lower.charAt(i)) : 0;
+            int hi = high != null && i < high.length() ? digit(high.charAt(i)) : BASE;
+
+            if (lo == hi) {
+                key.append(DIGITS.charAt(lo));
+                continue;
+            }
+
+            int mid = (lo + hi) / 2;
+            if (mid > lo) {
+                key.append(DIGITS.charAt(mid));
+                return key.toString();
+            }
+
+            // Dígitos consecutivos: se fija el menor y el resto solo tiene que superar a lower
+            key.append(DIGITS.charAt(lo));
+            high = null;
+        }
+    }
+
+    private static int digit(char c) {
+        int digit = DIGITS.indexOf(c);
+        if (digit < 0) {
+            throw new IllegalArgumentException("Clave de orden inválida: " + c);
+        }
+        return digit;
+    }
+}
@@ -1,16 +1,30 @@
 package com.trello.app_trello.Controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.BuissnessLogic.BoardBatch;
+import com.trello.app_trello.BuissnessLogic.BoardBatchResult;
 import com.trello.app_trello.BuissnessLogic.Card;
+import com.trello.app_trello.BuissnessLogic.CardMove;
+import com.trello.app_trello.BuissnessLogic.CardSearchHit;
+import com.trello.app_trello.BuissnessLogic.Page;
+import com.trello.app_trello.service.BoardChangeFeed;
+import com.trello.app_trello.service.BoardExportService;
 import com.trello.app_trello.service.BoardService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/boards")
@@ -20,113 +34,283 @@ public class BoardController {
     @Autowired
     private BoardService boardService;
 
+    @Autowired
+    private BoardExportService boardExportService;
+
+    @Autowired
+    private BoardChangeFeed boardChangeFeed;
+
     //BOARDS
+    // Los endpoints devuelven CompletableFuture: Spring MVC libera el hilo del servlet
+    // mientras espera a Firestore y completa la respuesta cuando llega el resultado.
+
     // Obtener todos los tableros
     @GetMapping
-    public ResponseEntity<List<Board>> getAllBoards() {
-        List<Board> boards = boardService.getAllBoards();
-        return ResponseEntity.ok(boards);
+    public CompletableFuture<ResponseEntity<List<Board>>> getAllBoards() {
+        return boardService.getAllBoardsAsync()
+                .thenApply(ResponseEntity::ok);
     } 
 
-    // Obtener un tablero por ID
+    // Obtener tableros paginados: GET /api/boards?pageSize=20&startAfter=<token>&view=summary|full.
+    // Sin pageSize se mantiene el listado completo de arriba.
+    @GetMapping(params = "pageSize")
+    public CompletableFuture<ResponseEntity<Page<?>>> getBoardsPage(
+            @RequestParam int pageSize,
+            @RequestParam(required = false) String startAfter,
+            @RequestParam(defaultValue = "summary") String view) {
+        return page(null, pageSize, startAfter, view);
+    }
+
+    // Buscar cards: GET /api/boards/search?q=diseño login&owner=<userId>&limit=20.
+    // Los resultados vienen ordenados por relevancia.
+    @GetMapping("/search")
+    public ResponseEntity<List<CardSearchHit>> searchCards(
+            @RequestParam String q,
+            @RequestParam(required = false) String owner,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(boardService.searchCards(q, owner, limit));
+    }
+
+    // Obtener un tablero por ID.
+    // Con If-None-Match igual al ETag responde 304 sin cuerpo (ver BoardETags); con la cache
+    // caliente eso no lee Firestore.
     @GetMapping("/{id}")
-    public ResponseEntity<Board> getBoardById(@PathVariable String id) {
-        return boardService.getBoardById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public CompletableFuture<ResponseEntity<Board>> getBoardById(@PathVariable String id) {
+        return boardService.getBoardByIdAsync(id)
+                .thenApply(board -> board
+                        .map(this::withETag)
+                        .orElse(ResponseEntity.notFound().build()));
     }
 
-    // Obtener tableros por usuario
+    // Obtener tableros por usuario (con ETag del listado completo, igual que arriba)
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Board>> getBoardsByUser(@PathVariable String userId) {
-        List<Board> boards = boardService.getBoardsByUser(userId);
-        return ResponseEntity.ok(boards != null? boards: Collections.emptyList());
+    public CompletableFuture<ResponseEntity<List<Board>>> getBoardsByUser(@PathVariable String userId) {
+        return boardService.getBoardsByUserAsync(userId)
+                .thenApply(boards -> {
+                    List<Board> result = boards != null? boards: Collections.emptyList();
+                    return ResponseEntity.ok().eTag(BoardETags.of(result)).body(result);
+                });
+    }
+
+    // Obtener tableros por usuario, paginados (mismos parámetros que GET /api/boards)
+    @GetMapping(value = "/user/{userId}", params = "pageSize")
+    public CompletableFuture<ResponseEntity<Page<?>>> getBoardsPageByUser(
+            @PathVariable String userId,
+            @RequestParam int pageSize,
+            @RequestParam(required = false) String startAfter,
+            @RequestParam(defaultValue = "summary") String view) {
+        return page(userId, pageSize, startAfter, view);
     }
 
     // Crear tablero
     @PostMapping
-    public ResponseEntity<Board> createBoard(@RequestBody Board board) {
-        Board created = boardService.createBoard(board);
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    public CompletableFuture<ResponseEntity<Board>> createBoard(@RequestBody Board board) {
+        return boardService.createBoardAsync(board)
+                .thenApply(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
     }
 
     // Actualizar tablero
     @PutMapping("/{id}")
-    public ResponseEntity<Board> updateBoard(@PathVariable String id, @RequestBody Board board) {
+    public CompletableFuture<ResponseEntity<Board>> updateBoard(@PathVariable String id, @RequestBody Board board) {
         if (!id.equals(board.getId())) {
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
-        Board updated = boardService.updateBoard(id,board);
-        return ResponseEntity.ok(updated);
+        return boardService.updateBoardAsync(id, board)
+                .thenApply(this::withETag);
+    }
+
+    // Actualizar parte de un tablero: solo viaja y se escribe lo que cambia.
+    // Content-Type application/merge-patch+json (RFC 7386), p. ej. {"name": "Nuevo nombre"}
+    @PatchMapping(value = "/{id}", consumes = "application/merge-patch+json")
+    public CompletableFuture<ResponseEntity<Board>> mergePatchBoard(@PathVariable String id, @RequestBody JsonNode patch) {
+        return boardService.mergePatchBoardAsync(id, patch)
+                .thenApply(this::withETag);
+    }
+
+    // Content-Type application/json-patch+json (RFC 6902), p. ej.
+    // [{"op": "replace", "path": "/lists/0/cards/2/description", "value": "..."}]
+    @PatchMapping(value = "/{id}", consumes = "application/json-patch+json")
+    public CompletableFuture<ResponseEntity<Board>> jsonPatchBoard(@PathVariable String id, @RequestBody JsonNode patch) {
+        return boardService.jsonPatchBoardAsync(id, patch)
+                .thenApply(this::withETag);
     }
 
     // Eliminar tablero
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteBoard(@PathVariable String id) {
-        boardService.deleteBoard(id);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<Void>> deleteBoard(@PathVariable String id) {
+        return boardService.deleteBoardAsync(id)
+                .thenApply(deleted -> ResponseEntity.noContent().build());
+    }
+
+    // Cambios del tablero en tiempo real (Server-Sent Events): primero un "snapshot" con el
+    // tablero completo y después solo los cambios (list-added, card-changed, ...), en lugar de
+    // consultar GET /{id} periódicamente
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToBoard(@PathVariable String id) {
+        return boardChangeFeed.subscribe(id);
+    }
+
+    // Exportar un tablero (format=json|ndjson); se escribe en streaming a medida que se recorre
+    @GetMapping("/{id}/export")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> exportBoard(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "json") String format) {
+        BoardExportService.Format exportFormat = BoardExportService.Format.parse(format);
+        return boardService.getBoardByIdAsync(id)
+                .thenApply(board -> board
+                        .map(found -> export("board-" + id, exportFormat,
+                                out -> boardExportService.writeBoard(found, exportFormat, out)))
+                        .orElse(ResponseEntity.notFound().build()));
+    }
+
+    // Exportar todos los tableros de un usuario, leídos de a páginas
+    @GetMapping("/user/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> exportBoardsByUser(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        BoardExportService.Format exportFormat = BoardExportService.Format.parse(format);
+        return export("boards-" + userId, exportFormat,
+                out -> boardExportService.writeBoardsByOwner(userId, exportFormat, out));
+    }
+
+    // Aplicar varias operaciones (add/remove/move card, add/remove list) en una sola escritura.
+    // 409 si el batch era atómico y alguna operación falló; el detalle va en cada resultado.
+    @PostMapping("/{id}/batch")
+    public CompletableFuture<ResponseEntity<BoardBatchResult>> applyBatch(@PathVariable String id, @RequestBody BoardBatch batch) {
+        return boardService.applyBatchAsync(id, batch)
+                .thenApply(result -> ResponseEntity
+                        .status(result.isApplied() ? HttpStatus.OK : HttpStatus.CONFLICT)
+                        .body(result));
+    }
+
+    // Migrar un tablero embebido al formato normalizado (listas y cards con ID propio)
+    @PostMapping("/{id}/normalize")
+    public CompletableFuture<ResponseEntity<Map<String, Boolean>>> normalizeBoard(@PathVariable String id) {
+        return boardService.normalizeBoardAsync(id)
+                .thenApply(migrated -> ResponseEntity.ok(Map.of("migrated", migrated)));
+    }
+
+    // Migrar todos los tableros embebidos
+    @PostMapping("/normalize")
+    public CompletableFuture<ResponseEntity<Map<String, Long>>> normalizeAllBoards() {
+        return boardService.normalizeAllBoardsAsync()
+                .thenApply(migrated -> ResponseEntity.ok(Map.of("migrated", migrated)));
     }
 
     //LISTS
     //Crear list
     @PostMapping("/{boardId}/lists")
-    public ResponseEntity<com.trello.app_trello.BuissnessLogic.List> addListToBoard(
+    public CompletableFuture<ResponseEntity<com.trello.app_trello.BuissnessLogic.List>> addListToBoard(
             @PathVariable String boardId,
             @RequestBody com.trello.app_trello.BuissnessLogic.List list) {
 
         if (list.getTitle() == null || list.getTitle().isEmpty()) {
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
 
-        try {
-            com.trello.app_trello.BuissnessLogic.List createdList = boardService.AddList(boardId, list);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdList);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+        return boardService.AddListAsync(boardId, list)
+                .thenApply(createdList -> ResponseEntity.status(HttpStatus.CREATED).body(createdList));
     }
 
     //Editar lista
 
     //Eliminar lista
     @DeleteMapping("/{boardId}/lists/{listTitle}")
-    public ResponseEntity<Void> deleteList(@PathVariable String boardId, @PathVariable String listTitle){
-        boardService.deleteList(boardId,listTitle);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<Void>> deleteList(@PathVariable String boardId, @PathVariable String listTitle){
+        return boardService.deleteListAsync(boardId,listTitle)
+                .thenApply(deleted -> ResponseEntity.noContent().build());
+    }
+
+    //Eliminar lista por ID
+    @DeleteMapping("/{boardId}/lists/id/{listId}")
+    public CompletableFuture<ResponseEntity<Void>> deleteListById(@PathVariable String boardId, @PathVariable String listId) {
+        return boardService.deleteListByIdAsync(boardId, listId)
+                .thenApply(deleted -> ResponseEntity.noContent().build());
     }
 
     //CARDS
     //Crear card
     @PostMapping("/{boardId}/lists/{listTitle}/cards")
-    public ResponseEntity<Card> addCardToList(
+    public CompletableFuture<ResponseEntity<Card>> addCardToList(
             @PathVariable String boardId,
             @PathVariable String listTitle,
             @RequestBody Card card) {
 
         // Validaciones básicas
         if (card.getTitle() == null || card.getTitle().isEmpty()) {
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
 
-        try {
-            Card createdCard = boardService.AddCard(boardId, listTitle, card);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdCard);
-        } catch (ResponseStatusException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new ResponseStatusException(
-                    HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Error al procesar la solicitud",
-                    e
-            );
-        }
+        // Los errores (ResponseStatusException o no) se resuelven en el manejo asíncrono de Spring
+        return boardService.AddCardAsync(boardId, listTitle, card)
+                .thenApply(createdCard -> ResponseEntity.status(HttpStatus.CREATED).body(createdCard));
     }
 
     //Eliminar card
     @DeleteMapping("/{boardId}/lists/{listTitle}/cards/{cardTitle}")
-    public ResponseEntity<Void> deleteCard (@PathVariable String boardId, @PathVariable String listTitle,@PathVariable String cardTitle){
-        boardService.deleteCard(boardId,listTitle,cardTitle);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<Void>> deleteCard (@PathVariable String boardId, @PathVariable String listTitle,@PathVariable String cardTitle){
+        return boardService.deleteCardAsync(boardId,listTitle,cardTitle)
+                .thenApply(deleted -> ResponseEntity.noContent().build());
+    }
+
+    //Crear card en una lista por ID
+    @PostMapping("/{boardId}/lists/id/{listId}/cards")
+    public CompletableFuture<ResponseEntity<Card>> addCardToListById(
+            @PathVariable String boardId,
+            @PathVariable String listId,
+            @RequestBody Card card) {
+
+        if (card.getTitle() == null || card.getTitle().isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+
+        return boardService.AddCardToListByIdAsync(boardId, listId, card)
+                .thenApply(createdCard -> ResponseEntity.status(HttpStatus.CREATED).body(createdCard));
     }
 
-}
\ No newline at end of file
+    //Eliminar card por ID
+    @DeleteMapping("/{boardId}/lists/id/{listId}/cards/{cardId}")
+    public CompletableFuture<ResponseEntity<Void>> deleteCardById(@PathVariable String boardId, @PathVariable String listId, @PathVariable String cardId) {
+        return boardService.deleteCardByIdAsync(boardId, listId, cardId)
+                .thenApply(deleted -> ResponseEntity.noContent().build());
+    }
+
+    // Mover una card a otra lista o de lugar, en una sola escritura:
+    // {"listId": "...", "beforeCardId": "..."} (o listTitle, afterCardId; sin referencia va al final)
+    @PostMapping("/{boardId}/cards/{cardId}/move")
+    public CompletableFuture<ResponseEntity<Card>> moveCard(
+            @PathVariable String boardId,
+            @PathVariable String cardId,
+            @RequestBody CardMove move) {
+        return boardService.moveCardAsync(boardId, cardId, move)
+                .thenApply(ResponseEntity::ok);
+    }
+
+    // summary: id, nombre, dueño y cantidades; full: tableros completos
+    private CompletableFuture<ResponseEntity<Page<?>>> page(String owner, int pageSize, String startAfter, String view) {
+        if ("summary".equals(view)) {
+            return boardService.getBoardSummariesAsync(owner, pageSize, startAfter)
+                    .thenApply(page -> ResponseEntity.<Page<?>>ok(page));
+        }
+        if ("full".equals(view)) {
+            return boardService.getBoardsPageAsync(owner, pageSize, startAfter)
+                    .thenApply(page -> ResponseEntity.<Page<?>>ok(page));
+        }
+        return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+    }
+
+    private ResponseEntity<Board> withETag(Board board) {
+        return ResponseEntity.ok().eTag(BoardETags.of(board)).body(board);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(String fileName, BoardExportService.Format format,
+                                                         StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(fileName + "." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,83 @@
+package com.trello.app_trello.Controllers;
+
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.BuissnessLogic.Card;
+
+import java.util.List;
+
+// ETags de tableros a partir del contenido (hash FNV-1a de 64 bits de todos los campos),
+// sin serializar a JSON. Con un ETag en la respuesta Spring MVC contesta 304 a un
+// If-None-Match que coincide, sin escribir el cuerpo. Son débiles (W/): identifican el
+// contenido, no los bytes, que cambian con la compresión.
+final class BoardETags {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private BoardETags() {
+    }
+
+    static String of(Board board) {
+        return format(hash(OFFSET_BASIS, board));
+    }
+
+    static String of(List<Board> boards) {
+        long hash = OFFSET_BASIS;
+        for (Board board : boards) {
+            hash = hash(hash, board);
+        }
+        return format(hash);
+    }
+
+    // --- Métodos privados ---
+    private static String format(long hash) {
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    private static long hash(long hash, Board board) {
+        hash = hash(hash, board.getId());
+        hash = hash(hash, board.getName());
+        hash = hash(hash, board.getOwner());
+        if (board.getLists() == null) {
+            return mix(hash, 0);
+        }
+        for (com.trello.app_trello.BuissnessLogic.List list : board.getLists()) {
+            hash = hash(hash, list.getId());
+            hash = hash(hash, list.getTitle());
+            hash = hash(hash, list.getPosition());
+            if (list.getCards() == null) {
+                hash = mix(hash, 0);
+                continue;
+            }
+            for (Card card : list.getCards()) {
+                hash = hash(hash, card.getId());
+                hash = hash(hash, card.getTitle());
+                hash = hash(hash, card.getDescription());
+                hash = hash(hash, card.getPosition());
+                if (card.getAssignedUsers() != null) {
+                    for (String user : card.getAssignedUsers()) {
+                        hash = hash(hash, user);
+                    }
+                }
+                hash = mix(hash, 2); // fin de la card
+            }
+            hash = mix(hash, 3); // fin de la lista
+        }
+        return mix(hash, 4);
+    }
+
+    // Cada valor termina con un separador, así "ab" + "c" no da lo mismo que "a" + "bc"
+    private static long hash(long hash, String value) {
+        if (value == null) {
+            return mix(hash, 0);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash = mix(hash, value.charAt(i));
+        }
+        return mix(hash, 1);
+    }
+
+    private static long mix(long hash, int value) {
+        return (hash ^ value) * PRIME;
+    }
+}
@@ -0,0 +1,128 @@
+package com.trello.app_trello.Controllers;
+
+import com.trello.app_trello.config.RateLimitInterceptor;
+import com.trello.app_trello.config.ResponseCompressionMetrics;
+import com.trello.app_trello.repository.AdmissionControl;
+import com.trello.app_trello.repository.ContentionMetrics;
+import com.trello.app_trello.repository.FirestoreMetrics;
+import com.trello.app_trello.service.BoardCache;
+import com.trello.app_trello.service.BoardChangeFeed;
+import com.trello.app_trello.service.BoardSnapshotStore;
+import com.trello.app_trello.service.CardSearchIndex;
+import com.trello.app_trello.service.ReadCoalescing;
+import com.trello.app_trello.service.WriteBehindBuffer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Contadores internos para dimensionar y diagnosticar el servicio
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    @Autowired
+    private BoardCache boardCache;
+
+    @Autowired
+    private ContentionMetrics contentionMetrics;
+
+    @Autowired
+    private WriteBehindBuffer writeBehindBuffer;
+
+    @Autowired
+    private BoardChangeFeed boardChangeFeed;
+
+    @Autowired
+    private FirestoreMetrics firestoreMetrics;
+
+    @Autowired
+    private CardSearchIndex cardSearchIndex;
+
+    @Autowired
+    private ResponseCompressionMetrics responseCompressionMetrics;
+
+    @Autowired
+    private RateLimitInterceptor rateLimitInterceptor;
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    @Autowired
+    private BoardSnapshotStore boardSnapshotStore;
+
+    @Autowired
+    private ReadCoalescing readCoalescing;
+
+    // Aciertos, fallos y desalojos de la cache de tableros
+    @GetMapping("/cache")
+    public ResponseEntity<BoardCache.CacheStats> getCacheStats() {
+        return ResponseEntity.ok(boardCache.stats());
+    }
+
+    // Reintentos y conflictos de escritura; los tableros más disputados primero
+    @GetMapping("/contention")
+    public ResponseEntity<ContentionMetrics.ContentionStats> getContentionStats(
+            @RequestParam(defaultValue = "20") int top) {
+        return ResponseEntity.ok(contentionMetrics.stats(top));
+    }
+
+    // Cola de write-behind: pendientes, rechazos, mutaciones por escritura y latencia de los flush
+    @GetMapping("/write-behind")
+    public ResponseEntity<WriteBehindBuffer.WriteBehindStats> getWriteBehindStats() {
+        return ResponseEntity.ok(writeBehindBuffer.stats());
+    }
+
+    // Feed de cambios: tableros escuchados, suscriptores y clientes desconectados por lentos
+    @GetMapping("/feed")
+    public ResponseEntity<BoardChangeFeed.FeedStats> getFeedStats() {
+        return ResponseEntity.ok(boardChangeFeed.stats());
+    }
+
+    // Tableros leídos cuyo tamaño estimado supera board.metrics.large-board-bytes, los más grandes primero
+    @GetMapping("/large-boards")
+    public ResponseEntity<List<FirestoreMetrics.LargeBoard>> getLargeBoards(
+            @RequestParam(defaultValue = "20") int top) {
+        return ResponseEntity.ok(firestoreMetrics.largeBoards(top));
+    }
+
+    // Índice de búsqueda: si terminó la carga inicial, tableros, cards y términos indexados
+    @GetMapping("/search")
+    public ResponseEntity<CardSearchIndex.SearchStats> getSearchStats() {
+        return ResponseEntity.ok(cardSearchIndex.stats());
+    }
+
+    // Compresión de respuestas: bytes escritos, enviados y ahorrados; respuestas 304
+    @GetMapping("/compression")
+    public ResponseEntity<ResponseCompressionMetrics.CompressionStats> getCompressionStats() {
+        return ResponseEntity.ok(responseCompressionMetrics.stats());
+    }
+
+    // Límite de tasa: usuarios y tableros con bucket activo, peticiones rechazadas con 429
+    @GetMapping("/rate-limits")
+    public ResponseEntity<RateLimitInterceptor.RateLimitStats> getRateLimitStats() {
+        return ResponseEntity.ok(rateLimitInterceptor.stats());
+    }
+
+    // Operaciones de Firestore en curso contra el máximo, y las rechazadas con 503
+    @GetMapping("/admission")
+    public ResponseEntity<AdmissionControl.AdmissionStats> getAdmissionStats() {
+        return ResponseEntity.ok(admissionControl.stats());
+    }
+
+    // Near-cache local: si todavía sirve el snapshot del arranque y cuánto se confirmó o descartó
+    @GetMapping("/near-cache")
+    public ResponseEntity<BoardSnapshotStore.NearCacheStats> getNearCacheStats() {
+        return ResponseEntity.ok(boardSnapshotStore.stats());
+    }
+
+    // Lecturas de tableros lanzadas contra las resueltas sumándose a una igual en curso
+    @GetMapping("/coalescing")
+    public ResponseEntity<ReadCoalescing.CoalescingStats> getCoalescingStats() {
+        return ResponseEntity.ok(readCoalescing.stats());
+    }
+}
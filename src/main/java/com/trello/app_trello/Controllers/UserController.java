@@ -0,0 +1,52 @@
+package com.trello.app_trello.Controllers;
+
+import com.trello.app_trello.BuissnessLogic.AssignedCard;
+import com.trello.app_trello.BuissnessLogic.BulkJob;
+import com.trello.app_trello.BuissnessLogic.Page;
+import com.trello.app_trello.service.BoardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/users")
+@CrossOrigin(origins = {"https://gestordeproyectosytareas.netlify.app","http://localhost:3000"})
+public class UserController {
+
+    @Autowired
+    private BoardService boardService;
+
+    // Cards asignadas al usuario en todos los tableros:
+    // GET /api/users/{userId}/cards?pageSize=20&startAfter=<token>
+    @GetMapping("/{userId}/cards")
+    public ResponseEntity<Page<AssignedCard>> getAssignedCards(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "20") int pageSize,
+            @RequestParam(required = false) String startAfter) {
+        return ResponseEntity.ok(boardService.getAssignedCards(userId, pageSize, startAfter));
+    }
+
+    // Operaciones masivas sobre todos los tableros del usuario: responden 202 con la operación
+    // en curso, cuyo avance se consulta en GET /api/users/{userId}/jobs/{jobId}
+    @DeleteMapping("/{userId}/boards")
+    public ResponseEntity<BulkJob> deleteBoards(@PathVariable String userId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(boardService.deleteBoardsByOwner(userId));
+    }
+
+    @PostMapping("/{userId}/boards/archive")
+    public ResponseEntity<BulkJob> archiveBoards(@PathVariable String userId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(boardService.archiveBoardsByOwner(userId));
+    }
+
+    // POST /api/users/{userId}/boards/transfer?to=<nuevo dueño>
+    @PostMapping("/{userId}/boards/transfer")
+    public ResponseEntity<BulkJob> transferBoards(@PathVariable String userId, @RequestParam String to) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(boardService.transferBoards(userId, to));
+    }
+
+    @GetMapping("/{userId}/jobs/{jobId}")
+    public ResponseEntity<BulkJob> getBulkJob(@PathVariable String userId, @PathVariable String jobId) {
+        return ResponseEntity.ok(boardService.getBulkJob(userId, jobId));
+    }
+}
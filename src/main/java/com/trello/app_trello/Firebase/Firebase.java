@@ -8,19 +8,40 @@ import com.google.firebase.cloud.FirestoreClient;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
-import javax.annotation.PostConstruct;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
+// La app de Firebase y el cliente de Firestore se crean en el primer uso, no al arrancar:
+// leer las credenciales y armar el cliente (gRPC, TLS) es buena parte del arranque en frío,
+// y así el servidor ya atiende mientras tanto. También permite arrancar sin credenciales
+// para generar el archivo CDS en el build de la imagen (ver Dockerfile).
 @Service
 @Profile("prod")
 public class Firebase {
 
-    @PostConstruct
-    public void initialize() throws IOException {
+    private volatile Firestore firestore;
+
+    public Firestore getFirestore() {
+        Firestore current = firestore;
+        if (current == null) {
+            synchronized (this) {
+                current = firestore;
+                if (current == null) {
+                    initialize();
+                    current = FirestoreClient.getFirestore();
+                    firestore = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    // --- Métodos privados ---
+    private void initialize() {
         String firebaseCredentialsBase64 = System.getenv("FIREBASE_CREDENTIALS_BASE64");
         if (firebaseCredentialsBase64 == null || firebaseCredentialsBase64.isEmpty()) {
             throw new IllegalStateException("La variable firebase.credentials.base64 no está configurada");
@@ -39,10 +60,8 @@ public class Firebase {
             if (FirebaseApp.getApps().isEmpty()) {
                 FirebaseApp.initializeApp(options);
             }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron leer las credenciales de Firebase", e);
         }
     }
-
-    public Firestore getFirestore() {
-        return FirestoreClient.getFirestore();
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package com.trello.app_trello.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class AsyncConfig {
+
+    // Ejecuta las continuaciones de los futures de Firestore fuera de los hilos de gRPC.
+    // Con spring.threads.virtual.enabled=true usa un hilo virtual por tarea, igual que Tomcat.
+    @Bean(name = "firestoreCallbackExecutor", destroyMethod = "shutdown")
+    public ExecutorService firestoreCallbackExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${board.async.callback-threads:8}") int callbackThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("firestore-callback-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(callbackThreads,
+                Thread.ofPlatform().name("firestore-callback-", 0).daemon(true).factory());
+    }
+
+    // Escribe los eventos del feed de cambios a cada cliente. Un envío puede bloquear mientras
+    // el cliente no lee, por eso no se comparte con las continuaciones de Firestore.
+    @Bean(name = "boardFeedExecutor", destroyMethod = "shutdown")
+    public ExecutorService boardFeedExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("board-feed-", 0).factory());
+        }
+        return Executors.newCachedThreadPool(
+                Thread.ofPlatform().name("board-feed-", 0).daemon(true).factory());
+    }
+}
@@ -0,0 +1,125 @@
+package com.trello.app_trello.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Límite de peticiones por usuario (todas) y por tablero (solo escrituras), con token buckets.
+// La IP del cliente siempre tiene su bucket; el header X-User-Id no está autenticado, así que
+// cambiarlo en cada petición no sirve para saltarse el límite. Si viene el header o la ruta
+// tiene {userId}, ese usuario suma además su propio bucket. Al pasarse se responde 429 con
+// Retry-After antes de llegar al controlador.
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    static final String USER_HEADER = "X-User-Id";
+    private static final int MAX_KEYS = 100_000;
+
+    @Value("${board.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${board.rate-limit.user.per-second:20}")
+    private double userPerSecond;
+
+    @Value("${board.rate-limit.user.burst:40}")
+    private int userBurst;
+
+    @Value("${board.rate-limit.board.per-second:10}")
+    private double boardPerSecond;
+
+    @Value("${board.rate-limit.board.burst:20}")
+    private int boardBurst;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TokenBuckets users;
+    private TokenBuckets boards;
+    private Counter userRejections;
+    private Counter boardRejections;
+
+    @PostConstruct
+    public void init() {
+        users = new TokenBuckets(userPerSecond, userBurst, MAX_KEYS);
+        boards = new TokenBuckets(boardPerSecond, boardBurst, MAX_KEYS);
+        userRejections = rejections("user");
+        boardRejections = rejections("board");
+        Gauge.builder("board.rate-limit.keys", users, TokenBuckets::size).tag("scope", "user").register(meterRegistry);
+        Gauge.builder("board.rate-limit.keys", boards, TokenBuckets::size).tag("scope", "board").register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // La segunda pasada de una petición asíncrona ya se contó
+        if (!enabled || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        Map<String, String> variables = templateVariables(request);
+        check(users, "ip:" + request.getRemoteAddr(), userRejections, "Demasiadas peticiones del usuario");
+        String user = user(request, variables);
+        if (user != null) {
+            check(users, "user:" + user, userRejections, "Demasiadas peticiones del usuario");
+        }
+
+        String boardId = variables.getOrDefault("boardId", variables.get("id"));
+        if (boardId != null && !HttpMethod.GET.matches(request.getMethod())
+                && !HttpMethod.HEAD.matches(request.getMethod())) {
+            check(boards, boardId, boardRejections, "Demasiadas escrituras en el tablero");
+        }
+        return true;
+    }
+
+    public RateLimitStats stats() {
+        return new RateLimitStats(enabled, users.size(), boards.size(),
+                (long) userRejections.count(), (long) boardRejections.count());
+    }
+
+    // users/boards: claves con bucket activo; rejected: peticiones rechazadas con 429
+    public record RateLimitStats(boolean enabled, int users, int boards, long userRejected, long boardRejected) {
+    }
+
+    // --- Métodos privados ---
+    private void check(TokenBuckets buckets, String key, Counter rejections, String reason) {
+        long waitNanos = buckets.tryAcquire(key);
+        if (waitNanos > 0) {
+            rejections.increment();
+            throw new RetryLaterException(HttpStatus.TOO_MANY_REQUESTS, reason,
+                    (long) Math.ceil(waitNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> templateVariables(HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return variables != null ? variables : Map.of();
+    }
+
+    private static String user(HttpServletRequest request, Map<String, String> variables) {
+        String user = request.getHeader(USER_HEADER);
+        if (user == null || user.isBlank()) {
+            user = variables.get("userId");
+        }
+        return user != null && !user.isBlank() ? user : null;
+    }
+
+    private Counter rejections(String scope) {
+        return Counter.builder("board.rate-limit.rejected")
+                .description("Peticiones rechazadas con 429 por límite de tasa")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,115 @@
+package com.trello.app_trello.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.ServletException;
+import org.apache.catalina.AccessLog;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bytes ahorrados por la compresión de Tomcat (server.compression.*) y respuestas 304.
+// Tomcat avisa a las valves de access log cuando termina cada respuesta, también las
+// asíncronas; ahí se comparan los bytes que escribió la aplicación con los que salieron
+// al socket. Los 304 se cuentan aparte: el cuerpo que no se envió no llega a medirse.
+@Component
+public class ResponseCompressionMetrics implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final LongAdder responses = new LongAdder();
+    private final LongAdder compressedResponses = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+
+    private Counter savedCounter;
+    private Counter notModifiedCounter;
+
+    @PostConstruct
+    public void init() {
+        savedCounter = Counter.builder("http.compression.bytes.saved")
+                .description("Bytes que la compresión evitó enviar")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        notModifiedCounter = Counter.builder("http.not.modified")
+                .description("Respuestas 304 por If-None-Match")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void customize(TomcatServletWebServerFactory factory) {
+        factory.addEngineValves(new SizeValve());
+    }
+
+    public CompressionStats stats() {
+        long written = bytesWritten.sum();
+        long sent = bytesSent.sum();
+        return new CompressionStats(responses.sum(), compressedResponses.sum(), written, sent,
+                written - sent, notModified.sum());
+    }
+
+    // Solo las respuestas comprimidas: bytesWritten es lo que escribió la aplicación y bytesSent
+    // lo que salió, con gzip y chunks
+    public record CompressionStats(long responses, long compressedResponses, long bytesWritten, long bytesSent,
+                                   long bytesSaved, long notModified) {
+    }
+
+    // --- Métodos privados ---
+    private void record(Response response) {
+        responses.increment();
+        if (response.getStatus() == HttpStatus.NOT_MODIFIED.value()) {
+            notModified.increment();
+            notModifiedCounter.increment();
+            return;
+        }
+        if (!"gzip".equals(response.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            return;
+        }
+        long written = response.getCoyoteResponse().getContentWritten();
+        long sent = response.getCoyoteResponse().getBytesWritten(false);
+        compressedResponses.increment();
+        bytesWritten.add(written);
+        bytesSent.add(sent);
+        if (written > sent) {
+            savedCounter.increment(written - sent);
+        }
+    }
+
+    private final class SizeValve extends ValveBase implements AccessLog {
+
+        private SizeValve() {
+            super(true);
+        }
+
+        @Override
+        public void invoke(Request request, Response response) throws IOException, ServletException {
+            getNext().invoke(request, response);
+        }
+
+        @Override
+        public void log(Request request, Response response, long time) {
+            record(response);
+        }
+
+        @Override
+        public void setRequestAttributesEnabled(boolean requestAttributesEnabled) {
+        }
+
+        @Override
+        public boolean getRequestAttributesEnabled() {
+            return false;
+        }
+    }
+}
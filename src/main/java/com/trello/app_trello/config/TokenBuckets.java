@@ -0,0 +1,108 @@
+package com.trello.app_trello.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Un token bucket por clave, sin locks: cada bucket es un solo AtomicLong con el instante en
+// que volvería a estar lleno (GCRA). Tomar un token lo corre un intervalo con compareAndSet;
+// si quedaría más de "burst" intervalos adelante, no hay token.
+// Un bucket lleno equivale a no tenerlo. Al llegar a maxKeys un solo hilo barre el mapa hasta
+// dejarlo en 3/4 (primero los llenos, después los más cerca de llenarse), así el barrido se
+// paga una vez cada maxKeys/4 claves nuevas. Mientras tanto las claves nuevas comparten un
+// bucket de desborde. Cada clave nueva reserva su lugar en "keys" antes de entrar al mapa,
+// así ni con muchos hilos a la vez el mapa pasa de maxKeys.
+final class TokenBuckets {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int maxKeys;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger keys = new AtomicInteger();
+    private final AtomicLong overflow = new AtomicLong(System.nanoTime());
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    TokenBuckets(double perSecond, int burst, int maxKeys) {
+        this.intervalNanos = (long) (1_000_000_000L / perSecond);
+        this.toleranceNanos = intervalNanos * Math.max(1, burst);
+        this.maxKeys = Math.max(1, maxKeys);
+    }
+
+    // 0 si tomó un token; si no, nanosegundos hasta que haya uno
+    long tryAcquire(String key) {
+        long now = System.nanoTime();
+        return take(bucket(key, now), now);
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    // --- Métodos privados ---
+    private AtomicLong bucket(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (keys.get() >= maxKeys) {
+            sweep(now);
+        }
+        if (keys.incrementAndGet() > maxKeys) {
+            keys.decrementAndGet();
+            return overflow;
+        }
+        AtomicLong created = new AtomicLong(now);
+        bucket = buckets.computeIfAbsent(key, k -> created);
+        if (bucket != created) {
+            // Otro hilo la agregó primero: se devuelve el lugar reservado
+            keys.decrementAndGet();
+        }
+        return bucket;
+    }
+
+    private void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.forEach((key, bucket) -> {
+                if (bucket.get() <= now) {
+                    evict(key, bucket);
+                }
+            });
+            int excess = keys.get() - maxKeys * 3 / 4;
+            if (excess > 0) {
+                // Los que se llenan antes son los que menos se usaron hace poco
+                buckets.entrySet().stream()
+                        .map(entry -> Map.entry(entry, entry.getValue().get()))
+                        .sorted(Map.Entry.comparingByValue())
+                        .limit(excess)
+                        .forEach(entry -> evict(entry.getKey().getKey(), entry.getKey().getValue()));
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private void evict(String key, AtomicLong bucket) {
+        if (buckets.remove(key, bucket)) {
+            keys.decrementAndGet();
+        }
+    }
+
+    private long take(AtomicLong bucket, long now) {
+        while (true) {
+            long full = bucket.get();
+            long next = Math.max(full, now) + intervalNanos;
+            long wait = next - now - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.trello.app_trello.repository;
+
+import com.trello.app_trello.config.RetryLaterException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+// Límite global de operaciones de Firestore en curso (cada método de FirestoreBoardRepository,
+// con todas sus RPCs y reintentos). Sin lugar se rechaza enseguida con 503 en vez de encolar:
+// una cola larga solo hace que todas las peticiones lleguen tarde. 0 desactiva el límite.
+@Aspect
+@Component
+public class AdmissionControl {
+
+    @Value("${board.store.max-in-flight:64}")
+    private int maxInFlight;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Semaphore permits;
+    private Counter rejections;
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(Math.max(0, maxInFlight));
+        rejections = Counter.builder("board.store.admission.rejected")
+                .description("Operaciones de Firestore rechazadas con 503 por el límite de concurrencia")
+                .register(meterRegistry);
+        Gauge.builder("board.store.in-flight", this, AdmissionControl::inFlight)
+                .description("Operaciones de Firestore en curso")
+                .register(meterRegistry);
+    }
+
+    @Around("execution(public java.util.concurrent.CompletableFuture "
+            + "com.trello.app_trello.repository.FirestoreBoardRepository.*(..))")
+    public Object admit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (maxInFlight <= 0) {
+            return joinPoint.proceed();
+        }
+        if (!permits.tryAcquire()) {
+            rejections.increment();
+            return CompletableFuture.failedFuture(new RetryLaterException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Servicio saturado, reintentar en unos segundos", 1));
+        }
+        CompletableFuture<?> operation;
+        try {
+            operation = (CompletableFuture<?>) joinPoint.proceed();
+        } catch (Throwable e) {
+            permits.release();
+            throw e;
+        }
+        operation.whenComplete((result, error) -> permits.release());
+        return operation;
+    }
+
+    public AdmissionStats stats() {
+        return new AdmissionStats(maxInFlight, inFlight(), (long) rejections.count());
+    }
+
+    public record AdmissionStats(int maxInFlight, int inFlight, long rejected) {
+    }
+
+    // --- Métodos privados ---
+    private int inFlight() {
+        return maxInFlight <= 0 ? 0 : maxInFlight - permits.availablePermits();
+    }
+}
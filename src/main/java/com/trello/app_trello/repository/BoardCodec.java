@@ -0,0 +1,119 @@
+package com.trello.app_trello.repository;
+
+import com.trello.app_trello.BuissnessLogic.Card;
+import com.trello.app_trello.BuissnessLogic.List;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+// Conversión a mano entre el modelo tipado (List, Card) y los mapas que guarda Firestore,
+// sin el mapeo por reflexión de POJOs. Los nombres de campo son los del formato embebido
+// original, así que los documentos existentes se leen igual.
+final class BoardCodec {
+
+    static final String ID = "id";
+    static final String TITLE = "title";
+    static final String POSITION = "position";
+    static final String CARDS = "cards";
+    static final String DESCRIPTION = "description";
+    static final String ASSIGNED_USERS = "assignedUsers";
+    static final String LIST_ID = "listId";
+
+    private BoardCodec() {
+    }
+
+    // Array "lists" de un documento embebido
+    static ArrayList<List> decodeLists(Object raw) {
+        if (!(raw instanceof java.util.List<?> rawLists)) {
+            return new ArrayList<>();
+        }
+        ArrayList<List> lists = new ArrayList<>(rawLists.size());
+        for (Object rawList : rawLists) {
+            if (!(rawList instanceof Map<?, ?> fields)) {
+                continue;
+            }
+            List list = decodeList(string(fields, ID), fields);
+            if (fields.get(CARDS) instanceof java.util.List<?> rawCards) {
+                ArrayList<Card> cards = new ArrayList<>(rawCards.size());
+                for (Object rawCard : rawCards) {
+                    if (rawCard instanceof Map<?, ?> cardFields) {
+                        cards.add(decodeCard(string(cardFields, ID), cardFields));
+                    }
+                }
+                list.setCards(cards);
+            }
+            lists.add(list);
+        }
+        return lists;
+    }
+
+    static ArrayList<Map<String, Object>> encodeLists(java.util.List<List> lists) {
+        ArrayList<Map<String, Object>> encoded = new ArrayList<>(lists.size());
+        for (List list : lists) {
+            Map<String, Object> fields = listFields(list);
+            fields.put(ID, list.getId());
+            ArrayList<Map<String, Object>> cards = new ArrayList<>(list.getCards() != null ? list.getCards().size() : 0);
+            if (list.getCards() != null) {
+                for (Card card : list.getCards()) {
+                    Map<String, Object> cardFields = cardFields(card);
+                    cardFields.put(ID, card.getId());
+                    cards.add(cardFields);
+                }
+            }
+            fields.put(CARDS, cards);
+            encoded.add(fields);
+        }
+        return encoded;
+    }
+
+    // Lista sin cards (documento lists/{listId} del formato normalizado)
+    static List decodeList(String id, Map<?, ?> fields) {
+        List list = new List();
+        list.setId(id);
+        list.setTitle(string(fields, TITLE));
+        list.setPosition(string(fields, POSITION));
+        list.setCards(new ArrayList<>());
+        return list;
+    }
+
+    static Map<String, Object> listFields(List list) {
+        Map<String, Object> fields = new HashMap<>(8);
+        fields.put(TITLE, list.getTitle());
+        fields.put(POSITION, list.getPosition());
+        return fields;
+    }
+
+    static Card decodeCard(String id, Map<?, ?> fields) {
+        Card card = new Card();
+        card.setId(id);
+        card.setTitle(string(fields, TITLE));
+        card.setDescription(string(fields, DESCRIPTION));
+        card.setPosition(string(fields, POSITION));
+        ArrayList<String> assignedUsers = new ArrayList<>();
+        if (fields.get(ASSIGNED_USERS) instanceof java.util.List<?> users) {
+            for (Object user : users) {
+                if (user != null) {
+                    assignedUsers.add(user.toString());
+                }
+            }
+        }
+        card.setAssignedUsers(assignedUsers);
+        return card;
+    }
+
+    // Campos de la card sin el ID (en el formato normalizado el ID es el del documento)
+    static Map<String, Object> cardFields(Card card) {
+        Map<String, Object> fields = new HashMap<>(8);
+        fields.put(TITLE, card.getTitle());
+        fields.put(DESCRIPTION, card.getDescription());
+        fields.put(ASSIGNED_USERS, card.getAssignedUsers() != null ? card.getAssignedUsers() : new ArrayList<>());
+        fields.put(POSITION, card.getPosition());
+        return fields;
+    }
+
+    private static String string(Map<?, ?> fields, String name) {
+        Object value = fields.get(name);
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.trello.app_trello.repository;
+
+import com.trello.app_trello.BuissnessLogic.Board;
+
+// Cambio a aplicar sobre la versión más reciente de un tablero.
+// Puede ejecutarse más de una vez (una por intento), siempre sobre una copia nueva.
+@FunctionalInterface
+public interface BoardMutation {
+
+    // Modifica el tablero recibido; devuelve false si no hay nada que escribir.
+    // Lanzar ResponseStatusException cancela la operación sin reintentos.
+    boolean apply(Board board);
+}
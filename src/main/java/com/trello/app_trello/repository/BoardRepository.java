@@ -0,0 +1,67 @@
+package com.trello.app_trello.repository;
+
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.BuissnessLogic.BoardSummary;
+import com.trello.app_trello.BuissnessLogic.Page;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+// Acceso a los tableros, independiente del almacenamiento (Firestore o embebido).
+// Todas las operaciones son asíncronas: ningún método bloquea el hilo que lo llama.
+public interface BoardRepository {
+
+    CompletableFuture<List<Board>> findAll();
+
+    CompletableFuture<Optional<Board>> findById(String id);
+
+    CompletableFuture<List<Board>> findByOwner(String owner);
+
+    // Página de tableros ordenados por ID, empezando después de "startAfter" (null: desde el principio).
+    // owner == null trae tableros de todos los usuarios. El nextPageToken de la página es el ID
+    // del último tablero devuelto, o null si no hay más.
+    CompletableFuture<Page<Board>> findPage(String owner, int pageSize, String startAfter);
+
+    // Igual que findPage pero trae solo los campos del resumen, sin listas ni cards
+    CompletableFuture<Page<BoardSummary>> findSummaryPage(String owner, int pageSize, String startAfter);
+
+    // Versión actual (ver Board.storeVersion) de cada tablero del dueño, sin leer su contenido.
+    // Cambia con cada escritura del tablero.
+    CompletableFuture<Map<String, Long>> findVersions(String owner);
+
+    // Genera un ID nuevo para un tablero que todavía no existe
+    String nextId();
+
+    // Guarda el tablero completo (crea o reemplaza)
+    CompletableFuture<Board> save(Board board);
+
+    // Aplica la mutación sobre la última versión del tablero y escribe lo que cambió (nombre,
+    // dueño, listas) solo si nadie lo modificó desde la lectura; ante un conflicto vuelve a leer y reintenta (con límite).
+    // Devuelve el tablero tal como quedó, o vacío si no existe.
+    CompletableFuture<Optional<Board>> mutate(String id, BoardMutation mutation);
+
+    // Migra un tablero embebido al formato normalizado (listas y cards con ID propio).
+    // Devuelve false si no había nada que migrar.
+    CompletableFuture<Boolean> normalize(String id);
+
+    CompletableFuture<Void> deleteById(String id);
+
+    // Operaciones masivas sobre todos los tableros de un dueño: las escrituras se agrupan en
+    // lotes que se confirman varios a la vez, informando el avance en "progress". Cada lote es
+    // atómico, la operación completa no: si falla a mitad, volver a llamarla sigue con lo que
+    // quedó. Devuelven la cantidad de tableros procesados.
+    CompletableFuture<Integer> deleteByOwner(String owner, BulkProgress progress);
+
+    CompletableFuture<Integer> transferOwner(String owner, String newOwner, BulkProgress progress);
+
+    // Mueve los tableros al archivo: dejan de aparecer en las consultas pero se conservan completos
+    CompletableFuture<Integer> archiveByOwner(String owner, BulkProgress progress);
+
+    // Entrega el estado actual del tablero y después cada versión nueva, en orden (vacío si
+    // no existe o se eliminó), hasta cancelar el BoardWatch. Si la escucha falla se llama a
+    // onError y no llegan más cambios. Los callbacks no deben bloquear.
+    BoardWatch watch(String id, Consumer<Optional<Board>> onChange, Consumer<Throwable> onError);
+}
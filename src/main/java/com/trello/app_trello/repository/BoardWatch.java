@@ -0,0 +1,8 @@
+package com.trello.app_trello.repository;
+
+// Escucha activa sobre un tablero (ver BoardRepository.watch)
+@FunctionalInterface
+public interface BoardWatch {
+
+    void cancel();
+}
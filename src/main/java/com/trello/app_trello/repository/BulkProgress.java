@@ -0,0 +1,14 @@
+package com.trello.app_trello.repository;
+
+import java.util.List;
+
+// Avance de una operación masiva sobre los tableros de un dueño (ver BoardRepository).
+// Se llama desde los hilos del almacenamiento: no debe bloquear.
+public interface BulkProgress {
+
+    // Cantidad de tableros a procesar, al empezar
+    void started(int total);
+
+    // Tableros de un lote ya confirmado
+    void committed(List<String> boardIds);
+}
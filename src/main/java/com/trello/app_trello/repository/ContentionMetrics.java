@@ -0,0 +1,73 @@
+package com.trello.app_trello.repository;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Reintentos y conflictos de las mutaciones optimistas, en total y por tablero.
+// Solo se guardan por tablero los que tuvieron contención (los "calientes").
+@Component
+public class ContentionMetrics {
+
+    private static final int MAX_TRACKED_BOARDS = 1000;
+
+    private final LongAdder mutations = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final Map<String, BoardCounters> boards = new ConcurrentHashMap<>();
+
+    void recordMutation(String boardId) {
+        mutations.increment();
+    }
+
+    void recordRetry(String boardId) {
+        retries.increment();
+        BoardCounters counters = counters(boardId);
+        if (counters != null) {
+            counters.retries.increment();
+        }
+    }
+
+    void recordConflict(String boardId) {
+        conflicts.increment();
+        BoardCounters counters = counters(boardId);
+        if (counters != null) {
+            counters.conflicts.increment();
+        }
+    }
+
+    public ContentionStats stats(int top) {
+        List<HotBoard> hotBoards = boards.entrySet().stream()
+                .map(entry -> new HotBoard(entry.getKey(),
+                        entry.getValue().retries.sum(),
+                        entry.getValue().conflicts.sum()))
+                .sorted(Comparator.comparingLong(HotBoard::retries).reversed())
+                .limit(top)
+                .toList();
+        return new ContentionStats(mutations.sum(), retries.sum(), conflicts.sum(), hotBoards);
+    }
+
+    // --- Métodos privados ---
+    private BoardCounters counters(String boardId) {
+        BoardCounters counters = boards.get(boardId);
+        if (counters == null && boards.size() < MAX_TRACKED_BOARDS) {
+            counters = boards.computeIfAbsent(boardId, id -> new BoardCounters());
+        }
+        return counters;
+    }
+
+    private static class BoardCounters {
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+    }
+
+    public record HotBoard(String boardId, long retries, long conflicts) {
+    }
+
+    public record ContentionStats(long mutations, long retries, long conflicts, List<HotBoard> hotBoards) {
+    }
+}
@@ -0,0 +1,595 @@
+package com.trello.app_trello.repository;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.firestore.*;
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.BuissnessLogic.BoardItems;
+import com.trello.app_trello.BuissnessLogic.BoardSummary;
+import com.trello.app_trello.BuissnessLogic.Page;
+import com.trello.app_trello.Firebase.Firebase;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Cada tablero se guarda embebido (un documento con el array "lists") o normalizado
+// (listas y cards como documentos propios, ver NormalizedBoardLayout). El formato se
+// decide por documento, así que ambos conviven durante la migración.
+// En los dos formatos el documento del tablero guarda listCount y cardCount, para que los
+// listados resumidos no tengan que leer listas ni cards.
+@Repository
+@Profile("prod")
+public class FirestoreBoardRepository implements BoardRepository {
+
+    private static final String BOARD_COLLECTION = "boards";
+    private static final String OWNER_FIELD = "owner";
+    private static final String LISTS_FIELD = "lists";
+    private static final String NAME_FIELD = "name";
+    static final String LIST_COUNT_FIELD = "listCount";
+    static final String CARD_COUNT_FIELD = "cardCount";
+    private static final String ARCHIVE_COLLECTION = "archivedBoards";
+    private static final String ARCHIVED_AT_FIELD = "archivedAt";
+    private static final int BULK_PAGE_SIZE = 300;
+    // Límite de Firestore para un documento (1 MiB)
+    private static final long MAX_DOCUMENT_BYTES = 1_048_576;
+
+    @Autowired
+    private Firebase firebase;
+
+    @Autowired
+    @Qualifier("firestoreCallbackExecutor")
+    private Executor callbackExecutor;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private NormalizedBoardLayout normalizedLayout;
+
+    @Autowired
+    private FirestoreMetrics firestoreMetrics;
+
+    // Formato para los tableros nuevos: embedded | normalized
+    @Value("${board.store.layout:embedded}")
+    private String defaultLayout;
+
+    // Lecturas o lotes de escritura en curso a la vez en las operaciones masivas
+    @Value("${board.bulk.parallelism:4}")
+    private int bulkParallelism;
+
+    @Override
+    public CompletableFuture<List<Board>> findAll() {
+        return async("query", getCollection().get(), "Error al obtener todos los tableros")
+                .thenCompose(this::toBoards);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Board>> findById(String id) {
+        return async("get", getCollection().document(id).get(), "Error al obtener el tablero con ID: " + id)
+                .thenCompose(document -> {
+                    if (!document.exists()) {
+                        return CompletableFuture.completedFuture(Optional.<Board>empty());
+                    }
+                    return toBoard(document).thenApply(Optional::of);
+                });
+    }
+
+    @Override
+    public CompletableFuture<List<Board>> findByOwner(String owner) {
+        return async("query", getCollection().whereEqualTo(OWNER_FIELD, owner).get(),
+                "Error al obtener tableros del usuario: " + owner)
+                .thenCompose(this::toBoards);
+    }
+
+    @Override
+    public CompletableFuture<Page<Board>> findPage(String owner, int pageSize, String startAfter) {
+        return async("query", pageQuery(owner, pageSize, startAfter).get(), "Error al obtener la página de tableros")
+                .thenCompose(querySnapshot -> {
+                    List<QueryDocumentSnapshot> documents = querySnapshot.getDocuments();
+                    List<CompletableFuture<Board>> boards = firstPage(documents, pageSize).stream()
+                            .map(this::toBoard)
+                            .toList();
+                    return CompletableFuture.allOf(boards.toArray(CompletableFuture[]::new))
+                            .thenApply(done -> new Page<>(boards.stream().map(CompletableFuture::join).toList(),
+                                    nextCursor(documents, pageSize)));
+                });
+    }
+
+    @Override
+    public CompletableFuture<Page<BoardSummary>> findSummaryPage(String owner, int pageSize, String startAfter) {
+        // Proyección: Firestore devuelve solo estos campos, sin el array de listas
+        Query query = pageQuery(owner, pageSize, startAfter)
+                .select(NAME_FIELD, OWNER_FIELD, LIST_COUNT_FIELD, CARD_COUNT_FIELD);
+        return async("query", query.get(), "Error al obtener la página de tableros")
+                .thenCompose(querySnapshot -> {
+                    List<QueryDocumentSnapshot> documents = querySnapshot.getDocuments();
+                    List<CompletableFuture<BoardSummary>> summaries = firstPage(documents, pageSize).stream()
+                            .map(this::toSummary)
+                            .toList();
+                    return CompletableFuture.allOf(summaries.toArray(CompletableFuture[]::new))
+                            .thenApply(done -> new Page<>(summaries.stream().map(CompletableFuture::join).toList(),
+                                    nextCursor(documents, pageSize)));
+                });
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Long>> findVersions(String owner) {
+        Query query = getCollection().whereEqualTo(OWNER_FIELD, owner).select(NormalizedBoardLayout.LAYOUT_FIELD);
+        return async("query", query.get(), "Error al obtener tableros del usuario: " + owner)
+                .thenApply(querySnapshot -> {
+                    Map<String, Long> versions = new HashMap<>();
+                    querySnapshot.getDocuments().forEach(document -> versions.put(document.getId(), version(document)));
+                    return versions;
+                });
+    }
+
+    @Override
+    public String nextId() {
+        return getCollection().document().getId();
+    }
+
+    // Reemplazo completo, condicionado a la versión leída: si otro escritor cambia el tablero en
+    // el medio se vuelve a leer y a calcular (si no, su cambio sobreviviría al reemplazo)
+    @Override
+    public CompletableFuture<Board> save(Board board) {
+        DocumentReference docRef = getCollection().document(board.getId());
+        return optimisticRetry.run(board.getId(), () -> async("get", docRef.get(), "Error al guardar el tablero")
+                .thenCompose(current -> {
+                    boolean normalized = current.exists()
+                            ? normalizedLayout.isNormalized(current)
+                            : NormalizedBoardLayout.NORMALIZED.equals(defaultLayout);
+                    if (!normalized) {
+                        WriteBatch batch = firestore().batch();
+                        writeBoard(batch, docRef, current, embeddedFields(board));
+                        return conditional(board.getId(), async("commit", batch.commit(), "Error al guardar el tablero"))
+                                .thenApply(writeResults -> board);
+                    }
+
+                    // En formato normalizado se escriben solo las diferencias
+                    BoardItems.ensureIds(board);
+                    CompletableFuture<ArrayList<com.trello.app_trello.BuissnessLogic.List>> previous = current.exists()
+                            ? normalizedLayout.readChildren(docRef).thenApply(normalizedLayout::assemble)
+                            : CompletableFuture.completedFuture(new ArrayList<>());
+                    return previous.thenCompose(before -> conditional(board.getId(), normalizedLayout.commitWithBoard(
+                                    firestore(), normalizedLayout.diff(docRef, before, board.getLists()),
+                                    batch -> writeBoard(batch, docRef, current, normalizedLayout.boardFields(board)),
+                                    "Error al guardar el tablero")))
+                            .thenApply(written -> board);
+                }));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Board>> mutate(String id, BoardMutation mutation) {
+        DocumentReference docRef = getCollection().document(id);
+        return optimisticRetry.run(id, () -> async("get", docRef.get(), "Error al obtener el tablero con ID: " + id)
+                .thenCompose(snapshot -> {
+                    if (!snapshot.exists()) {
+                        return CompletableFuture.completedFuture(Optional.<Board>empty());
+                    }
+                    if (normalizedLayout.isNormalized(snapshot)) {
+                        return mutateNormalized(snapshot, mutation);
+                    }
+                    Board board = documentToBoard(snapshot);
+                    if (!mutation.apply(board)) {
+                        return CompletableFuture.completedFuture(Optional.of(board));
+                    }
+                    // Solo los campos que cambiaron (el array de listas se reescribe entero: Firestore
+                    // no actualiza elementos sueltos de un array), y solo si el documento sigue en
+                    // la versión leída
+                    Map<String, Object> fields = changedFields(snapshot, board);
+                    if (!BoardCodec.decodeLists(snapshot.get(LISTS_FIELD)).equals(BoardItems.lists(board))) {
+                        fields.put(LISTS_FIELD, BoardCodec.encodeLists(board.getLists()));
+                        fields.put(LIST_COUNT_FIELD, board.getLists().size());
+                        fields.put(CARD_COUNT_FIELD, BoardItems.cardCount(board));
+                    }
+                    if (fields.isEmpty()) {
+                        return CompletableFuture.completedFuture(Optional.of(board));
+                    }
+                    Precondition unchanged = Precondition.updatedAt(snapshot.getUpdateTime());
+                    return conditional(id, async("update", docRef.update(fields, unchanged),
+                            "Error al actualizar el tablero"))
+                            .thenApply(writeResult -> Optional.of(board));
+                }));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> normalize(String id) {
+        DocumentReference docRef = getCollection().document(id);
+        return optimisticRetry.run(id, () -> async("get", docRef.get(), "Error al migrar el tablero con ID: " + id)
+                .thenCompose(snapshot -> {
+                    if (!snapshot.exists() || normalizedLayout.isNormalized(snapshot)) {
+                        return CompletableFuture.completedFuture(false);
+                    }
+                    Board board = documentToBoard(snapshot);
+                    BoardItems.ensureIds(board);
+
+                    // 1. Escribir los hijos (nadie los lee hasta cambiar el layout), borrando restos
+                    //    de un intento anterior que ya no correspondan
+                    // 2. Cambiar el layout del tablero, condicionado a que nadie lo haya tocado
+                    return normalizedLayout.readChildren(docRef)
+                            .thenCompose(children -> normalizedLayout.commitInChunks(firestore(),
+                                    normalizedLayout.diff(docRef, normalizedLayout.assemble(children), board.getLists())))
+                            .thenCompose(written -> conditional(id, async("update", docRef.update(
+                                    Precondition.updatedAt(snapshot.getUpdateTime()),
+                                    NormalizedBoardLayout.LAYOUT_FIELD, NormalizedBoardLayout.NORMALIZED,
+                                    LISTS_FIELD, FieldValue.delete(),
+                                    NormalizedBoardLayout.REVISION_FIELD, 0,
+                                    LIST_COUNT_FIELD, board.getLists().size(),
+                                    CARD_COUNT_FIELD, BoardItems.cardCount(board)), "Error al migrar el tablero")))
+                            .thenApply(writeResult -> true);
+                }));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteById(String id) {
+        DocumentReference docRef = getCollection().document(id);
+        // Primero los hijos (si el tablero está normalizado), después el documento
+        return normalizedLayout.readChildren(docRef)
+                .thenCompose(children -> normalizedLayout.commitInChunks(firestore(), normalizedLayout.deleteAll(children)))
+                .thenCompose(deleted -> async("delete", docRef.delete(), "Error al eliminar el tablero"))
+                .thenApply(writeResult -> null);
+    }
+
+    @Override
+    public CompletableFuture<Integer> deleteByOwner(String owner, BulkProgress progress) {
+        return bulk(owner, false, progress, document -> childDeletes(document).thenApply(children ->
+                new BulkPlan(null, children, batch -> batch.delete(document.getReference()))));
+    }
+
+    // Solo cambia el campo owner: listas y cards (embebidas o no) no lo repiten
+    @Override
+    public CompletableFuture<Integer> transferOwner(String owner, String newOwner, BulkProgress progress) {
+        return bulk(owner, false, progress, document -> CompletableFuture.completedFuture(
+                new BulkPlan(null, List.of(), batch -> batch.update(document.getReference(), OWNER_FIELD, newOwner))));
+    }
+
+    // El archivo guarda cada tablero en formato embebido, con la fecha. La copia se confirma
+    // antes de borrar nada: un fallo a mitad de camino deja el tablero en los dos lados, nunca
+    // en ninguno. Un tablero que embebido no entra en un documento se rechaza sin tocarlo (la
+    // operación falla con 413 y los de páginas anteriores quedan archivados).
+    @Override
+    public CompletableFuture<Integer> archiveByOwner(String owner, BulkProgress progress) {
+        CollectionReference archive = firestore().collection(ARCHIVE_COLLECTION);
+        return bulk(owner, true, progress, document -> {
+            Board board = documentToBoard(document);
+            CompletableFuture<List<NormalizedBoardLayout.Write>> children = CompletableFuture.completedFuture(List.of());
+            if (normalizedLayout.isNormalized(document)) {
+                children = normalizedLayout.readChildren(document.getReference()).thenApply(read -> {
+                    board.setLists(normalizedLayout.assemble(read));
+                    return normalizedLayout.deleteAll(read);
+                });
+            }
+            return children.thenApply(deletes -> {
+                DocumentReference archived = archive.document(board.getId());
+                Map<String, Object> fields = embeddedFields(board);
+                // + la fecha de archivo (8 bytes) y su nombre
+                if (FirestoreMetrics.documentSize(archived, fields) + 8 + ARCHIVED_AT_FIELD.length() + 1 > MAX_DOCUMENT_BYTES) {
+                    throw new ResponseStatusException(
+                            HttpStatus.PAYLOAD_TOO_LARGE,
+                            "El tablero " + board.getId() + " es demasiado grande para archivarlo"
+                    );
+                }
+                fields.put(ARCHIVED_AT_FIELD, FieldValue.serverTimestamp());
+                return new BulkPlan(batch -> batch.set(archived, fields), deletes,
+                        batch -> batch.delete(document.getReference()));
+            });
+        });
+    }
+
+    // Un snapshot listener sobre el documento del tablero. En formato normalizado cada mutación
+    // incrementa el revision del documento, así que también avisa; las listas y cards se leen aparte.
+    @Override
+    public BoardWatch watch(String id, Consumer<Optional<Board>> onChange, Consumer<Throwable> onError) {
+        Object lock = new Object();
+        // Armar un tablero normalizado es asíncrono: se encadena para entregar en orden
+        CompletableFuture<?>[] delivery = {CompletableFuture.completedFuture(null)};
+        ListenerRegistration registration = getCollection().document(id).addSnapshotListener(callbackExecutor,
+                (snapshot, error) -> {
+                    if (error != null) {
+                        onError.accept(error);
+                        return;
+                    }
+                    synchronized (lock) {
+                        delivery[0] = delivery[0]
+                                .thenCompose(previous -> watchedBoard(snapshot))
+                                .thenAccept(onChange)
+                                .exceptionally(failure -> {
+                                    onError.accept(failure);
+                                    return null;
+                                });
+                    }
+                });
+        return registration::remove;
+    }
+
+    // --- Métodos privados ---
+    private Firestore firestore() {
+        return firebase.getFirestore();
+    }
+
+    private CollectionReference getCollection() {
+        return firestore().collection(BOARD_COLLECTION);
+    }
+
+    private <T> CompletableFuture<T> async(String operation, ApiFuture<T> future, String errorMessage) {
+        return firestoreMetrics.record(operation, FirestoreFutures.toCompletable(future, callbackExecutor, errorMessage));
+    }
+
+    private CompletableFuture<Optional<Board>> mutateNormalized(DocumentSnapshot snapshot, BoardMutation mutation) {
+        DocumentReference docRef = snapshot.getReference();
+        return normalizedLayout.readChildren(docRef).thenCompose(children -> {
+            Board board = documentToBoard(snapshot);
+            board.setLists(normalizedLayout.assemble(children));
+            if (!mutation.apply(board)) {
+                return CompletableFuture.completedFuture(Optional.of(board));
+            }
+            BoardItems.ensureIds(board);
+
+            // El revision del tablero lleva la precondición; el resto son solo los documentos que cambiaron
+            // (si son más de los que entran en un lote, ver commitWithBoard)
+            Map<String, Object> fields = changedFields(snapshot, board);
+            fields.put(NormalizedBoardLayout.REVISION_FIELD, FieldValue.increment(1));
+            fields.put(LIST_COUNT_FIELD, board.getLists().size());
+            fields.put(CARD_COUNT_FIELD, BoardItems.cardCount(board));
+            return conditional(snapshot.getId(), normalizedLayout.commitWithBoard(firestore(),
+                    normalizedLayout.diff(docRef, normalizedLayout.assemble(children), board.getLists()),
+                    batch -> batch.update(docRef, fields, Precondition.updatedAt(snapshot.getUpdateTime())),
+                    "Error al actualizar las listas del tablero"))
+                    .thenApply(written -> Optional.of(board));
+        });
+    }
+
+    // Recorre los tableros del dueño por páginas. Para cada página arma las escrituras de cada
+    // tablero (planner) y las confirma por pasos (ver commitPlans), con bulkParallelism lecturas
+    // o lotes en curso a la vez.
+    // fullDocuments == false lee solo el layout de cada tablero.
+    private CompletableFuture<Integer> bulk(String owner, boolean fullDocuments, BulkProgress progress,
+                                            Function<DocumentSnapshot, CompletableFuture<BulkPlan>> planner) {
+        Query owned = getCollection().whereEqualTo(OWNER_FIELD, owner);
+        return async("query", owned.count().get(), "Error al contar los tableros del usuario: " + owner)
+                .thenCompose(count -> {
+                    progress.started((int) count.getCount());
+                    return bulkPage(owned, fullDocuments, null, 0, progress, planner);
+                });
+    }
+
+    private CompletableFuture<Integer> bulkPage(Query owned, boolean fullDocuments, String startAfter, int done,
+                                                BulkProgress progress,
+                                                Function<DocumentSnapshot, CompletableFuture<BulkPlan>> planner) {
+        Query page = owned.orderBy(FieldPath.documentId()).limit(BULK_PAGE_SIZE);
+        if (!fullDocuments) {
+            page = page.select(NormalizedBoardLayout.LAYOUT_FIELD);
+        }
+        if (startAfter != null) {
+            page = page.startAfter(getCollection().document(startAfter));
+        }
+        return async("query", page.get(), "Error al obtener los tableros del usuario")
+                .thenCompose(snapshot -> {
+                    List<QueryDocumentSnapshot> documents = snapshot.getDocuments();
+                    if (documents.isEmpty()) {
+                        return CompletableFuture.completedFuture(done);
+                    }
+                    List<Supplier<CompletableFuture<BulkPlan>>> planning = documents.stream()
+                            .<Supplier<CompletableFuture<BulkPlan>>>map(document -> () -> planner.apply(document))
+                            .toList();
+                    int processed = done + documents.size();
+                    return FirestoreFutures.inParallel(planning, bulkParallelism)
+                            .thenCompose(plans -> commitPlans(documents, plans, progress))
+                            .thenCompose(committed -> documents.size() < BULK_PAGE_SIZE
+                                    ? CompletableFuture.completedFuture(processed)
+                                    : bulkPage(owned, fullDocuments, documents.get(documents.size() - 1).getId(),
+                                            processed, progress, planner));
+                });
+    }
+
+    // Tres pasos, y cada uno empieza solo si el anterior se confirmó entero: las copias (si hay),
+    // el borrado de los hijos y por último los documentos de los tableros. Así ningún tablero
+    // pierde sus listas y cards sin que su copia ya esté escrita. Un fallo en el medio deja los
+    // tableros de la página en un estado que la operación puede repetir.
+    private CompletableFuture<Void> commitPlans(List<QueryDocumentSnapshot> documents, List<BulkPlan> plans,
+                                                BulkProgress progress) {
+        List<NormalizedBoardLayout.Write> children = plans.stream()
+                .flatMap(plan -> plan.children().stream())
+                .toList();
+        return commitEach(documents, plans, BulkPlan::copy, ids -> {
+                })
+                .thenCompose(copied -> normalizedLayout.commitInChunks(firestore(), children, bulkParallelism))
+                .thenCompose(deleted -> commitEach(documents, plans, BulkPlan::board, progress::committed));
+    }
+
+    // Una escritura por tablero, en lotes de hasta MAX_WRITES_PER_BATCH tableros
+    private CompletableFuture<Void> commitEach(List<QueryDocumentSnapshot> documents, List<BulkPlan> plans,
+                                               Function<BulkPlan, Consumer<WriteBatch>> write,
+                                               Consumer<List<String>> committed) {
+        List<Supplier<CompletableFuture<Void>>> commits = new ArrayList<>();
+        for (int from = 0; from < plans.size(); from += NormalizedBoardLayout.MAX_WRITES_PER_BATCH) {
+            int to = Math.min(plans.size(), from + NormalizedBoardLayout.MAX_WRITES_PER_BATCH);
+            List<Consumer<WriteBatch>> writes = plans.subList(from, to).stream()
+                    .map(write)
+                    .filter(Objects::nonNull)
+                    .toList();
+            if (writes.isEmpty()) {
+                continue;
+            }
+            List<String> ids = documents.subList(from, to).stream().map(DocumentSnapshot::getId).toList();
+            commits.add(() -> {
+                WriteBatch batch = firestore().batch();
+                writes.forEach(staged -> staged.accept(batch));
+                return async("commit", batch.commit(), "Error al escribir los tableros del usuario")
+                        .thenAccept(results -> committed.accept(ids));
+            });
+        }
+        return FirestoreFutures.inParallel(commits, bulkParallelism).thenApply(results -> null);
+    }
+
+    // Documentos de listas y cards a borrar (solo los tableros normalizados tienen)
+    private CompletableFuture<List<NormalizedBoardLayout.Write>> childDeletes(DocumentSnapshot document) {
+        if (!normalizedLayout.isNormalized(document)) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        return normalizedLayout.readChildren(document.getReference()).thenApply(normalizedLayout::deleteAll);
+    }
+
+    // Crea el documento del tablero, o lo actualiza si sigue en la versión leída
+    private void writeBoard(WriteBatch batch, DocumentReference docRef, DocumentSnapshot current,
+                            Map<String, Object> fields) {
+        if (current.exists()) {
+            batch.update(docRef, fields, Precondition.updatedAt(current.getUpdateTime()));
+        } else {
+            batch.create(docRef, fields);
+        }
+    }
+
+    // Nombre y dueño, si la mutación los cambió respecto del documento leído
+    private Map<String, Object> changedFields(DocumentSnapshot snapshot, Board board) {
+        Map<String, Object> fields = new HashMap<>();
+        if (!Objects.equals(snapshot.getString(NAME_FIELD), board.getName())) {
+            fields.put(NAME_FIELD, board.getName());
+        }
+        if (!Objects.equals(snapshot.getString(OWNER_FIELD), board.getOwner())) {
+            fields.put(OWNER_FIELD, board.getOwner());
+        }
+        return fields;
+    }
+
+    // Campos del documento embebido: el tablero completo más los contadores del resumen
+    private Map<String, Object> embeddedFields(Board board) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("id", board.getId());
+        fields.put(NAME_FIELD, board.getName());
+        fields.put(OWNER_FIELD, board.getOwner());
+        fields.put(LISTS_FIELD, BoardCodec.encodeLists(BoardItems.lists(board)));
+        fields.put(LIST_COUNT_FIELD, board.getLists().size());
+        fields.put(CARD_COUNT_FIELD, BoardItems.cardCount(board));
+        return fields;
+    }
+
+    // Orden por ID de documento; se pide uno de más para saber si hay otra página
+    private Query pageQuery(String owner, int pageSize, String startAfter) {
+        Query query = owner != null ? getCollection().whereEqualTo(OWNER_FIELD, owner) : getCollection();
+        query = query.orderBy(FieldPath.documentId()).limit(pageSize + 1);
+        if (startAfter != null) {
+            query = query.startAfter(getCollection().document(startAfter));
+        }
+        return query;
+    }
+
+    private <T> List<T> firstPage(List<T> documents, int pageSize) {
+        return documents.size() > pageSize ? documents.subList(0, pageSize) : documents;
+    }
+
+    private String nextCursor(List<QueryDocumentSnapshot> documents, int pageSize) {
+        return documents.size() > pageSize ? documents.get(pageSize - 1).getId() : null;
+    }
+
+    // Tableros guardados antes de existir los contadores: se calculan leyendo el tablero completo
+    private CompletableFuture<BoardSummary> toSummary(DocumentSnapshot document) {
+        Long listCount = document.getLong(LIST_COUNT_FIELD);
+        Long cardCount = document.getLong(CARD_COUNT_FIELD);
+        if (listCount != null && cardCount != null) {
+            return CompletableFuture.completedFuture(new BoardSummary(document.getId(),
+                    document.getString(NAME_FIELD), document.getString(OWNER_FIELD),
+                    listCount.intValue(), cardCount.intValue()));
+        }
+        return async("get", document.getReference().get(), "Error al obtener el tablero con ID: " + document.getId())
+                .thenCompose(this::toBoard)
+                .thenApply(BoardItems::summarize);
+    }
+
+    // Traduce el rechazo por precondición a un conflicto reintentable
+    private <T> CompletableFuture<T> conditional(String id, CompletableFuture<T> write) {
+        return write.exceptionallyCompose(error -> CompletableFuture.failedFuture(
+                isPreconditionFailure(error) ? new WriteConflictException(id) : error));
+    }
+
+    // Firestore rechaza con FAILED_PRECONDITION la escritura si updateTime ya no coincide, y con
+    // ALREADY_EXISTS un create si otro escritor creó el documento después de leerlo
+    private boolean isPreconditionFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ApiException apiException
+                    && (apiException.getStatusCode().getCode() == StatusCode.Code.FAILED_PRECONDITION
+                    || apiException.getStatusCode().getCode() == StatusCode.Code.ALREADY_EXISTS)) {
+                return true;
+            }
+            if (cause instanceof StatusRuntimeException statusException
+                    && (statusException.getStatus().getCode() == Status.Code.FAILED_PRECONDITION
+                    || statusException.getStatus().getCode() == Status.Code.ALREADY_EXISTS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CompletableFuture<List<Board>> toBoards(QuerySnapshot querySnapshot) {
+        List<CompletableFuture<Board>> boards = querySnapshot.getDocuments().stream()
+                .map(this::toBoard)
+                .toList();
+        return CompletableFuture.allOf(boards.toArray(CompletableFuture[]::new))
+                .thenApply(done -> boards.stream().map(CompletableFuture::join).toList());
+    }
+
+    private CompletableFuture<Optional<Board>> watchedBoard(DocumentSnapshot snapshot) {
+        if (!snapshot.exists()) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return toBoard(snapshot).thenApply(Optional::of);
+    }
+
+    private CompletableFuture<Board> toBoard(DocumentSnapshot document) {
+        Board board = documentToBoard(document);
+        if (!normalizedLayout.isNormalized(document)) {
+            firestoreMetrics.recordBoard(board, FirestoreMetrics.documentSize(document));
+            return CompletableFuture.completedFuture(board);
+        }
+        return normalizedLayout.readChildren(document.getReference()).thenApply(children -> {
+            board.setLists(normalizedLayout.assemble(children));
+            firestoreMetrics.recordBoard(board, FirestoreMetrics.documentSize(document) + normalizedLayout.size(children));
+            return board;
+        });
+    }
+
+    private Board documentToBoard(DocumentSnapshot document) {
+        try {
+            Board board = new Board();
+            board.setId(document.getId());
+            board.setName(document.getString(NAME_FIELD));
+            board.setOwner(document.getString(OWNER_FIELD));
+            board.setLists(BoardCodec.decodeLists(document.get(LISTS_FIELD)));
+            board.storeVersion(version(document));
+            return board;
+        } catch (Exception e) {
+            throw new ResponseStatusException(
+                    HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Error al convertir documento a Board",
+                    e
+            );
+        }
+    }
+
+    // Update time en microsegundos: cambia con cada escritura del documento del tablero (en
+    // formato normalizado también, por el revision)
+    private static long version(DocumentSnapshot document) {
+        com.google.cloud.Timestamp updateTime = document.getUpdateTime();
+        return updateTime == null ? 0 : updateTime.getSeconds() * 1_000_000 + updateTime.getNanos() / 1_000;
+    }
+
+    // Escrituras de un tablero en una operación masiva, una por paso (ver commitPlans): la copia
+    // (null si no hay), los hijos a borrar y la del documento del tablero
+    private record BulkPlan(Consumer<WriteBatch> copy, List<NormalizedBoardLayout.Write> children,
+                            Consumer<WriteBatch> board) {
+    }
+}
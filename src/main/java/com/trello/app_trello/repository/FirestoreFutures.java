@@ -0,0 +1,93 @@
+package com.trello.app_trello.repository;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+// Adapta los ApiFuture de Firestore a CompletableFuture sin bloquear ningún hilo.
+// inParallel también lo usa el servicio para acotar operaciones sobre muchos tableros.
+public final class FirestoreFutures {
+
+    private FirestoreFutures() {
+    }
+
+    static <T> CompletableFuture<T> toCompletable(ApiFuture<T> apiFuture, Executor executor, String errorMessage) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        ApiFutures.addCallback(apiFuture, new ApiFutureCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                future.complete(result);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                future.completeExceptionally(t instanceof ResponseStatusException
+                        ? t
+                        : new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, errorMessage, t));
+            }
+        }, executor);
+        // Si el llamador cancela (p. ej. timeout de la petición), se cancela también la RPC
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                apiFuture.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    // Ejecuta las tareas en orden con a lo sumo "parallelism" en curso. Con el primer error no
+    // se lanzan más y el resultado falla con ese error; las que ya estaban en curso terminan igual.
+    public static <T> CompletableFuture<List<T>> inParallel(List<Supplier<CompletableFuture<T>>> tasks, int parallelism) {
+        AtomicReferenceArray<T> results = new AtomicReferenceArray<>(tasks.size());
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        CompletableFuture<?>[] lanes = new CompletableFuture[Math.max(1, Math.min(parallelism, tasks.size()))];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = lane(tasks, results, next, failed);
+        }
+        return CompletableFuture.allOf(lanes).thenApply(done -> {
+            List<T> list = new ArrayList<>(tasks.size());
+            for (int i = 0; i < tasks.size(); i++) {
+                list.add(results.get(i));
+            }
+            return list;
+        });
+    }
+
+    // --- Métodos privados ---
+    // Cada carril toma la siguiente tarea libre cuando termina la anterior
+    private static <T> CompletableFuture<Void> lane(List<Supplier<CompletableFuture<T>>> tasks,
+                                                    AtomicReferenceArray<T> results,
+                                                    AtomicInteger next, AtomicBoolean failed) {
+        int index = next.getAndIncrement();
+        if (index >= tasks.size() || failed.get()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<T> task;
+        try {
+            task = tasks.get(index).get();
+        } catch (RuntimeException e) {
+            task = CompletableFuture.failedFuture(e);
+        }
+        return task.whenComplete((result, error) -> {
+                    if (error != null) {
+                        failed.set(true);
+                    }
+                })
+                .thenCompose(result -> {
+                    results.set(index, result);
+                    return lane(tasks, results, next, failed);
+                });
+    }
+}
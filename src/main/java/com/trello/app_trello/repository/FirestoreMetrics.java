@@ -0,0 +1,200 @@
+package com.trello.app_trello.repository;
+
+import com.google.api.gax.rpc.ApiException;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.Blob;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.GeoPoint;
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.BuissnessLogic.BoardItems;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Métricas de Firestore: tiempo de cada RPC ("firestore.requests", por operación y resultado),
+// errores por código gRPC ("firestore.errors") y tamaño de los tableros leídos
+// ("board.document.lists", "board.document.cards", "board.document.bytes").
+// Los bytes se estiman con las reglas de tamaño de documento de Firestore (límite: 1 MiB).
+// Los tableros que pasan de board.metrics.large-board-bytes se guardan con su tamaño
+// para poder encontrarlos (ver /api/stats/large-boards).
+@Component
+public class FirestoreMetrics {
+
+    private static final int MAX_TRACKED_BOARDS = 1000;
+    private static final long DOCUMENT_OVERHEAD = 32;
+
+    @Value("${board.metrics.large-board-bytes:524288}")
+    private long largeBoardBytes;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private DistributionSummary listsPerBoard;
+    private DistributionSummary cardsPerBoard;
+    private DistributionSummary bytesPerBoard;
+
+    private final Map<String, LargeBoard> largeBoards = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        listsPerBoard = DistributionSummary.builder("board.document.lists")
+                .description("Listas por tablero leído")
+                .register(meterRegistry);
+        cardsPerBoard = DistributionSummary.builder("board.document.cards")
+                .description("Cards por tablero leído")
+                .register(meterRegistry);
+        bytesPerBoard = DistributionSummary.builder("board.document.bytes")
+                .description("Tamaño estimado en Firestore por tablero leído (documento e hijos)")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    // Cronometra la RPC hasta que el future termina; devuelve el mismo future
+    <T> CompletableFuture<T> record(String operation, CompletableFuture<T> request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        request.whenComplete((result, error) -> {
+            sample.stop(Timer.builder("firestore.requests")
+                    .description("Tiempo de ida y vuelta de las llamadas a Firestore")
+                    .tag("operation", operation)
+                    .tag("outcome", error == null ? "SUCCESS" : "ERROR")
+                    .register(meterRegistry));
+            if (error != null) {
+                Counter.builder("firestore.errors")
+                        .description("Errores de Firestore por operación y código")
+                        .tag("operation", operation)
+                        .tag("code", errorCode(error))
+                        .register(meterRegistry)
+                        .increment();
+            }
+        });
+        return request;
+    }
+
+    void recordBoard(Board board, long bytes) {
+        listsPerBoard.record(BoardItems.lists(board).size());
+        cardsPerBoard.record(BoardItems.cardCount(board));
+        bytesPerBoard.record(bytes);
+        if (bytes >= largeBoardBytes) {
+            if (largeBoards.containsKey(board.getId()) || largeBoards.size() < MAX_TRACKED_BOARDS) {
+                largeBoards.put(board.getId(), new LargeBoard(board.getId(), bytes,
+                        BoardItems.lists(board).size(), BoardItems.cardCount(board)));
+            }
+        } else {
+            largeBoards.remove(board.getId());
+        }
+    }
+
+    // Los tableros más grandes primero
+    public List<LargeBoard> largeBoards(int top) {
+        return largeBoards.values().stream()
+                .sorted(Comparator.comparingLong(LargeBoard::bytes).reversed())
+                .limit(top)
+                .toList();
+    }
+
+    public record LargeBoard(String boardId, long bytes, int lists, int cards) {
+    }
+
+    // Tamaño según https://firebase.google.com/docs/firestore/storage-size
+    static long documentSize(DocumentSnapshot document) {
+        long size = DOCUMENT_OVERHEAD + referenceSize(document.getReference());
+        Map<String, Object> data = document.getData();
+        return data == null ? size : size + mapSize(data);
+    }
+
+    // Igual, para un documento a punto de escribirse
+    static long documentSize(DocumentReference reference, Map<String, Object> data) {
+        return DOCUMENT_OVERHEAD + referenceSize(reference) + mapSize(data);
+    }
+
+    // --- Métodos privados ---
+    private static long referenceSize(DocumentReference reference) {
+        long size = 16;
+        for (String segment : reference.getPath().split("/")) {
+            size += stringSize(segment);
+        }
+        return size;
+    }
+
+    private static long mapSize(Map<?, ?> map) {
+        long size = 0;
+        for (Map.Entry<?, ?> field : map.entrySet()) {
+            size += stringSize(String.valueOf(field.getKey())) + valueSize(field.getValue());
+        }
+        return size;
+    }
+
+    private static long valueSize(Object value) {
+        if (value == null || value instanceof Boolean) {
+            return 1;
+        }
+        if (value instanceof Number || value instanceof Timestamp || value instanceof Date) {
+            return 8;
+        }
+        if (value instanceof String string) {
+            return stringSize(string);
+        }
+        if (value instanceof GeoPoint) {
+            return 16;
+        }
+        if (value instanceof Blob blob) {
+            return blob.toBytes().length;
+        }
+        if (value instanceof DocumentReference reference) {
+            return referenceSize(reference);
+        }
+        if (value instanceof Map<?, ?> map) {
+            return mapSize(map);
+        }
+        if (value instanceof Collection<?> values) {
+            long size = 0;
+            for (Object element : values) {
+                size += valueSize(element);
+            }
+            return size;
+        }
+        return 8;
+    }
+
+    // Bytes en UTF-8 más uno, sin copiar el string (se calcula en cada lectura)
+    private static long stringSize(String value) {
+        long size = 1;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                size += 1;
+            } else if (c < 0x800) {
+                size += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                size += 4;
+                i++;
+            } else {
+                size += 3;
+            }
+        }
+        return size;
+    }
+
+    private static String errorCode(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ApiException apiException) {
+                return apiException.getStatusCode().getCode().name();
+            }
+            if (cause instanceof StatusRuntimeException statusException) {
+                return statusException.getStatus().getCode().name();
+            }
+        }
+        return "UNKNOWN";
+    }
+}
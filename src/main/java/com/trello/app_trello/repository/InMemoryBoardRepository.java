@@ -0,0 +1,362 @@
+package com.trello.app_trello.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.BuissnessLogic.BoardItems;
+import com.trello.app_trello.BuissnessLogic.BoardSummary;
+import com.trello.app_trello.BuissnessLogic.Page;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+// Almacenamiento embebido para desarrollo local, tests y pruebas de carga sin red.
+// Opcionalmente persiste un snapshot JSON en disco al apagar y cada cierto intervalo.
+@Repository
+@Profile("!prod")
+public class InMemoryBoardRepository implements BoardRepository {
+
+    // Tableros por lote en las operaciones masivas, como los lotes de Firestore
+    private static final int BULK_BATCH_SIZE = 400;
+
+    private final Map<String, Stored> boards = new ConcurrentHashMap<>();
+    private final Map<String, Set<Consumer<Optional<Board>>>> watchers = new ConcurrentHashMap<>();
+    // Tableros archivados; no se incluyen en el snapshot
+    private final Map<String, Board> archived = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Value("${board.store.snapshot-path:}")
+    private String snapshotPath;
+
+    @Value("${board.store.snapshot-interval-seconds:0}")
+    private long snapshotIntervalSeconds;
+
+    // Latencia artificial (bloqueante) por operación, para simular un round trip a Firestore en benchmarks
+    @Value("${board.store.simulated-latency-ms:0}")
+    private long simulatedLatencyMs;
+
+    private ScheduledExecutorService snapshotScheduler;
+
+    @PostConstruct
+    public void loadSnapshot() throws IOException {
+        if (snapshotPath == null || snapshotPath.isEmpty()) {
+            return;
+        }
+        Path path = Path.of(snapshotPath);
+        if (Files.exists(path)) {
+            List<Board> stored = objectMapper.readValue(path.toFile(), new TypeReference<List<Board>>() {});
+            stored.forEach(board -> boards.put(board.getId(), new Stored(board, 0)));
+        }
+        if (snapshotIntervalSeconds > 0) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "board-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshotScheduler.scheduleWithFixedDelay(this::writeSnapshotQuietly,
+                    snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        writeSnapshot();
+    }
+
+    @Override
+    public CompletableFuture<List<Board>> findAll() {
+        simulateLatency();
+        return CompletableFuture.completedFuture(boards.values().stream()
+                .map(this::read)
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Board>> findById(String id) {
+        simulateLatency();
+        return CompletableFuture.completedFuture(Optional.ofNullable(boards.get(id)).map(this::read));
+    }
+
+    @Override
+    public CompletableFuture<List<Board>> findByOwner(String owner) {
+        simulateLatency();
+        return CompletableFuture.completedFuture(boards.values().stream()
+                .filter(stored -> owner.equals(stored.board.getOwner()))
+                .map(this::read)
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public CompletableFuture<Page<Board>> findPage(String owner, int pageSize, String startAfter) {
+        simulateLatency();
+        return CompletableFuture.completedFuture(page(owner, pageSize, startAfter, this::read));
+    }
+
+    @Override
+    public CompletableFuture<Page<BoardSummary>> findSummaryPage(String owner, int pageSize, String startAfter) {
+        simulateLatency();
+        return CompletableFuture.completedFuture(page(owner, pageSize, startAfter, stored -> BoardItems.summarize(stored.board)));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Long>> findVersions(String owner) {
+        simulateLatency();
+        Map<String, Long> versions = new HashMap<>();
+        boards.values().stream()
+                .filter(stored -> owner.equals(stored.board.getOwner()))
+                .forEach(stored -> versions.put(stored.board.getId(), storeVersion(stored)));
+        return CompletableFuture.completedFuture(versions);
+    }
+
+    @Override
+    public String nextId() {
+        return BoardItems.newId();
+    }
+
+    @Override
+    public CompletableFuture<Board> save(Board board) {
+        simulateLatency();
+        Board stored = copy(board);
+        boards.compute(board.getId(), (key, current) ->
+                new Stored(stored, current != null ? current.version + 1 : 0));
+        notifyWatchers(board.getId());
+        return CompletableFuture.completedFuture(board);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Board>> mutate(String id, BoardMutation mutation) {
+        return optimisticRetry.run(id, () -> {
+            simulateLatency();
+            Stored current = boards.get(id);
+            if (current == null) {
+                return CompletableFuture.completedFuture(Optional.<Board>empty());
+            }
+            Board board = copy(current.board);
+            if (!mutation.apply(board)) {
+                return CompletableFuture.completedFuture(Optional.of(board));
+            }
+            // Compare-and-set por identidad: falla si otro escritor reemplazó la versión leída
+            Stored next = new Stored(copy(board), current.version + 1);
+            if (!boards.replace(id, current, next)) {
+                return CompletableFuture.failedFuture(new WriteConflictException(id));
+            }
+            notifyWatchers(id);
+            return CompletableFuture.completedFuture(Optional.of(board));
+        });
+    }
+
+    // En memoria no hay formatos distintos: migrar es solo asignar IDs y claves de orden
+    @Override
+    public CompletableFuture<Boolean> normalize(String id) {
+        AtomicBoolean changed = new AtomicBoolean();
+        return mutate(id, board -> {
+            boolean assigned = BoardItems.ensureIds(board);
+            changed.set(assigned);
+            return assigned;
+        }).thenApply(board -> changed.get());
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteById(String id) {
+        simulateLatency();
+        boards.remove(id);
+        notifyWatchers(id);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Integer> deleteByOwner(String owner, BulkProgress progress) {
+        return bulk(owner, progress, id -> boards.remove(id) != null);
+    }
+
+    @Override
+    public CompletableFuture<Integer> transferOwner(String owner, String newOwner, BulkProgress progress) {
+        return bulk(owner, progress, id -> {
+            boolean[] transferred = {false};
+            boards.computeIfPresent(id, (key, current) -> {
+                if (!owner.equals(current.board.getOwner())) {
+                    return current;
+                }
+                Board board = copy(current.board);
+                board.setOwner(newOwner);
+                transferred[0] = true;
+                return new Stored(board, current.version + 1);
+            });
+            return transferred[0];
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> archiveByOwner(String owner, BulkProgress progress) {
+        return bulk(owner, progress, id -> {
+            Stored removed = boards.remove(id);
+            if (removed == null) {
+                return false;
+            }
+            archived.put(id, removed.board);
+            return true;
+        });
+    }
+
+    // Los avisos se entregan en el hilo que escribió. Alta y baja van dentro de compute sobre la
+    // misma clave, así el último en salir borra el conjunto sin perder a uno que esté entrando.
+    @Override
+    public BoardWatch watch(String id, Consumer<Optional<Board>> onChange, Consumer<Throwable> onError) {
+        Set<Consumer<Optional<Board>>> boardWatchers = watchers.compute(id, (key, current) -> {
+            Set<Consumer<Optional<Board>>> set = current != null ? current : new LinkedHashSet<>();
+            synchronized (set) {
+                set.add(onChange);
+            }
+            return set;
+        });
+        synchronized (boardWatchers) {
+            onChange.accept(Optional.ofNullable(boards.get(id)).map(stored -> copy(stored.board)));
+        }
+        return () -> watchers.computeIfPresent(id, (key, current) -> {
+            synchronized (current) {
+                current.remove(onChange);
+                return current.isEmpty() ? null : current;
+            }
+        });
+    }
+
+    // --- Métodos privados ---
+    // Copia profunda para que nadie comparta mapas mutables con el almacén
+    private Board copy(Board board) {
+        return objectMapper.convertValue(board, Board.class);
+    }
+
+    private Board read(Stored stored) {
+        Board board = copy(stored.board);
+        board.storeVersion(storeVersion(stored));
+        return board;
+    }
+
+    // Las versiones empiezan en 0, que en Board.storeVersion significa "desconocida"
+    private static long storeVersion(Stored stored) {
+        return stored.version + 1;
+    }
+
+    // Bajo el lock del tablero: dos escritores no pueden entregar versiones fuera de orden
+    private void notifyWatchers(String id) {
+        Set<Consumer<Optional<Board>>> boardWatchers = watchers.get(id);
+        if (boardWatchers == null) {
+            return;
+        }
+        synchronized (boardWatchers) {
+            if (boardWatchers.isEmpty()) {
+                return;
+            }
+            Optional<Board> current = Optional.ofNullable(boards.get(id)).map(stored -> copy(stored.board));
+            boardWatchers.forEach(watcher -> watcher.accept(current));
+        }
+    }
+
+    // Mismo orden que Firestore (por ID); se pide uno de más para saber si hay otra página
+    private <T> Page<T> page(String owner, int pageSize, String startAfter, Function<Stored, T> mapper) {
+        List<Stored> found = boards.values().stream()
+                .filter(stored -> owner == null || owner.equals(stored.board.getOwner()))
+                .filter(stored -> startAfter == null || stored.board.getId().compareTo(startAfter) > 0)
+                .sorted(Comparator.comparing(stored -> stored.board.getId()))
+                .limit(pageSize + 1L)
+                .toList();
+        boolean more = found.size() > pageSize;
+        List<Stored> items = more ? found.subList(0, pageSize) : found;
+        return new Page<>(items.stream().map(mapper).toList(),
+                more ? items.get(items.size() - 1).board.getId() : null);
+    }
+
+    // Aplica "operation" a cada tablero del dueño, informando el avance por lotes
+    private CompletableFuture<Integer> bulk(String owner, BulkProgress progress, Predicate<String> operation) {
+        simulateLatency();
+        List<String> ids = boards.values().stream()
+                .map(stored -> stored.board)
+                .filter(board -> owner.equals(board.getOwner()))
+                .map(Board::getId)
+                .sorted()
+                .toList();
+        progress.started(ids.size());
+        int processed = 0;
+        for (int from = 0; from < ids.size(); from += BULK_BATCH_SIZE) {
+            List<String> committed = new ArrayList<>();
+            for (String id : ids.subList(from, Math.min(ids.size(), from + BULK_BATCH_SIZE))) {
+                if (operation.test(id)) {
+                    committed.add(id);
+                    notifyWatchers(id);
+                }
+            }
+            progress.committed(committed);
+            processed += committed.size();
+        }
+        return CompletableFuture.completedFuture(processed);
+    }
+
+    // Sin equals propio: replace() compara por identidad
+    private static final class Stored {
+        private final Board board;
+        private final long version;
+
+        private Stored(Board board, long version) {
+            this.board = board;
+            this.version = version;
+        }
+    }
+
+    private void simulateLatency() {
+        if (simulatedLatencyMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(simulatedLatencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeSnapshotQuietly() {
+        try {
+            writeSnapshot();
+        } catch (IOException ignored) {
+            // Se reintenta en el próximo intervalo
+        }
+    }
+
+    private synchronized void writeSnapshot() throws IOException {
+        if (snapshotPath == null || snapshotPath.isEmpty()) {
+            return;
+        }
+        Path path = Path.of(snapshotPath).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        List<Board> snapshot = boards.values().stream().map(stored -> stored.board).toList();
+        objectMapper.writeValue(tmp.toFile(), snapshot);
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
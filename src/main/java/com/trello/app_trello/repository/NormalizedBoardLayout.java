@@ -0,0 +1,230 @@
+package com.trello.app_trello.repository;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.*;
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.BuissnessLogic.BoardItems;
+import com.trello.app_trello.BuissnessLogic.Card;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Formato normalizado de un tablero en Firestore:
+//   boards/{boardId}                 name, owner, layout = "normalized", revision, listCount, cardCount
+//   boards/{boardId}/lists/{listId}  title, position
+//   boards/{boardId}/cards/{cardId}  listId, title, description, assignedUsers, position
+// Cambiar una card escribe solo el documento de esa card (más el revision del tablero,
+// que sirve de precondición para detectar escrituras concurrentes).
+@Component
+@Profile("prod")
+class NormalizedBoardLayout {
+
+    static final String LAYOUT_FIELD = "layout";
+    static final String NORMALIZED = "normalized";
+    static final String REVISION_FIELD = "revision";
+
+    private static final String LISTS_COLLECTION = "lists";
+    private static final String CARDS_COLLECTION = "cards";
+    static final int MAX_WRITES_PER_BATCH = 400;
+    // Lotes confirmándose a la vez en commitInChunks, para no ocupar solos el límite de admisión
+    private static final int COMMIT_PARALLELISM = 4;
+
+    @Autowired
+    @Qualifier("firestoreCallbackExecutor")
+    private Executor callbackExecutor;
+
+    @Autowired
+    private FirestoreMetrics firestoreMetrics;
+
+    boolean isNormalized(DocumentSnapshot document) {
+        return NORMALIZED.equals(document.getString(LAYOUT_FIELD));
+    }
+
+    // Lee listas y cards del tablero con dos consultas en paralelo
+    CompletableFuture<Children> readChildren(DocumentReference boardRef) {
+        CompletableFuture<QuerySnapshot> lists = async("query",
+                boardRef.collection(LISTS_COLLECTION).orderBy(BoardCodec.POSITION).get(),
+                "Error al leer las listas del tablero");
+        CompletableFuture<QuerySnapshot> cards = async("query",
+                boardRef.collection(CARDS_COLLECTION).orderBy(BoardCodec.POSITION).get(),
+                "Error al leer las cards del tablero");
+        return lists.thenCombine(cards, Children::new);
+    }
+
+    // Arma las listas con sus cards, igual que un tablero embebido
+    ArrayList<com.trello.app_trello.BuissnessLogic.List> assemble(Children children) {
+        ArrayList<com.trello.app_trello.BuissnessLogic.List> lists = new ArrayList<>(children.lists().size());
+        Map<String, com.trello.app_trello.BuissnessLogic.List> listsById = new HashMap<>();
+        for (QueryDocumentSnapshot document : children.lists()) {
+            com.trello.app_trello.BuissnessLogic.List list = BoardCodec.decodeList(document.getId(), document.getData());
+            lists.add(list);
+            listsById.put(document.getId(), list);
+        }
+        for (QueryDocumentSnapshot document : children.cards()) {
+            com.trello.app_trello.BuissnessLogic.List list = listsById.get(document.getString(BoardCodec.LIST_ID));
+            if (list == null) {
+                continue; // card huérfana de una lista borrada
+            }
+            BoardItems.cards(list).add(BoardCodec.decodeCard(document.getId(), document.getData()));
+        }
+        return lists;
+    }
+
+    // Tamaño estimado de los documentos de listas y cards (ver FirestoreMetrics)
+    long size(Children children) {
+        long size = 0;
+        for (QueryDocumentSnapshot document : children.lists()) {
+            size += FirestoreMetrics.documentSize(document);
+        }
+        for (QueryDocumentSnapshot document : children.cards()) {
+            size += FirestoreMetrics.documentSize(document);
+        }
+        return size;
+    }
+
+    // Campos del documento del tablero en formato normalizado
+    Map<String, Object> boardFields(Board board) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("name", board.getName());
+        fields.put("owner", board.getOwner());
+        fields.put(LAYOUT_FIELD, NORMALIZED);
+        fields.put(REVISION_FIELD, FieldValue.increment(1));
+        fields.put(FirestoreBoardRepository.LIST_COUNT_FIELD, BoardItems.lists(board).size());
+        fields.put(FirestoreBoardRepository.CARD_COUNT_FIELD, BoardItems.cardCount(board));
+        return fields;
+    }
+
+    // Escrituras mínimas para pasar de "before" a "after": solo listas/cards nuevas,
+    // modificadas o eliminadas. Requiere que todos los elementos de "after" tengan ID.
+    List<Write> diff(DocumentReference boardRef, List<com.trello.app_trello.BuissnessLogic.List> before,
+                     List<com.trello.app_trello.BuissnessLogic.List> after) {
+        Map<String, Map<String, Object>> oldLists = new HashMap<>();
+        Map<String, Map<String, Object>> oldCards = new HashMap<>();
+        flatten(before, oldLists, oldCards);
+        Map<String, Map<String, Object>> newLists = new LinkedHashMap<>();
+        Map<String, Map<String, Object>> newCards = new LinkedHashMap<>();
+        flatten(after, newLists, newCards);
+
+        List<Write> writes = new ArrayList<>();
+        collect(boardRef.collection(LISTS_COLLECTION), oldLists, newLists, writes);
+        collect(boardRef.collection(CARDS_COLLECTION), oldCards, newCards, writes);
+        return writes;
+    }
+
+    // Borra todos los documentos hijos (incluidos los huérfanos)
+    List<Write> deleteAll(Children children) {
+        List<Write> writes = new ArrayList<>();
+        children.lists().forEach(document -> writes.add(Write.delete(document.getReference())));
+        children.cards().forEach(document -> writes.add(Write.delete(document.getReference())));
+        return writes;
+    }
+
+    void stage(WriteBatch batch, List<Write> writes) {
+        for (Write write : writes) {
+            if (write.data() == null) {
+                batch.delete(write.ref());
+            } else {
+                batch.set(write.ref(), write.data());
+            }
+        }
+    }
+
+    // Escrituras de listas y cards junto con la del documento del tablero ("board", que lleva la
+    // precondición y el revision). Si entran en un lote van juntas y es atómico. Si no, se
+    // renuncia a la atomicidad: los hijos van antes en lotes aparte y el documento del tablero
+    // al final, así el revision (y los watchers) solo cambian con todo escrito. Mientras tanto un
+    // lector puede ver el cambio a medias; si la precondición falla, el reintento vuelve a leer
+    // los hijos ya escritos y completa la diferencia.
+    CompletableFuture<Void> commitWithBoard(Firestore firestore, List<Write> children,
+                                            Consumer<WriteBatch> board, String errorMessage) {
+        if (children.size() < MAX_WRITES_PER_BATCH) {
+            WriteBatch batch = firestore.batch();
+            board.accept(batch);
+            stage(batch, children);
+            return async("commit", batch.commit(), errorMessage).thenApply(results -> null);
+        }
+        return commitInChunks(firestore, children)
+                .thenCompose(written -> {
+                    WriteBatch batch = firestore.batch();
+                    board.accept(batch);
+                    return async("commit", batch.commit(), errorMessage);
+                })
+                .thenApply(results -> null);
+    }
+
+    // Para escrituras que no necesitan ser atómicas entre sí (hijos que todavía nadie lee):
+    // se parten en lotes para respetar el límite de Firestore
+    CompletableFuture<Void> commitInChunks(Firestore firestore, List<Write> writes) {
+        return commitInChunks(firestore, writes, COMMIT_PARALLELISM);
+    }
+
+    // Igual, con a lo sumo "parallelism" lotes confirmándose a la vez
+    CompletableFuture<Void> commitInChunks(Firestore firestore, List<Write> writes, int parallelism) {
+        List<Supplier<CompletableFuture<List<WriteResult>>>> commits = new ArrayList<>();
+        for (int from = 0; from < writes.size(); from += MAX_WRITES_PER_BATCH) {
+            List<Write> chunk = writes.subList(from, Math.min(writes.size(), from + MAX_WRITES_PER_BATCH));
+            commits.add(() -> {
+                WriteBatch batch = firestore.batch();
+                stage(batch, chunk);
+                return async("commit", batch.commit(), "Error al escribir listas y cards del tablero");
+            });
+        }
+        return FirestoreFutures.inParallel(commits, parallelism).thenApply(results -> null);
+    }
+
+    <T> CompletableFuture<T> async(String operation, ApiFuture<T> future, String errorMessage) {
+        return firestoreMetrics.record(operation, FirestoreFutures.toCompletable(future, callbackExecutor, errorMessage));
+    }
+
+    // --- Métodos privados ---
+    private void flatten(List<com.trello.app_trello.BuissnessLogic.List> lists,
+                         Map<String, Map<String, Object>> listDocs,
+                         Map<String, Map<String, Object>> cardDocs) {
+        if (lists == null) {
+            return;
+        }
+        for (com.trello.app_trello.BuissnessLogic.List list : lists) {
+            listDocs.put(list.getId(), BoardCodec.listFields(list));
+            for (Card card : BoardItems.cards(list)) {
+                Map<String, Object> cardDoc = BoardCodec.cardFields(card);
+                cardDoc.put(BoardCodec.LIST_ID, list.getId());
+                cardDocs.put(card.getId(), cardDoc);
+            }
+        }
+    }
+
+    private void collect(CollectionReference collection,
+                         Map<String, Map<String, Object>> before,
+                         Map<String, Map<String, Object>> after,
+                         List<Write> writes) {
+        after.forEach((id, data) -> {
+            if (!data.equals(before.get(id))) {
+                writes.add(new Write(collection.document(id), data));
+            }
+        });
+        before.keySet().stream()
+                .filter(id -> !after.containsKey(id))
+                .forEach(id -> writes.add(Write.delete(collection.document(id))));
+    }
+
+    record Children(QuerySnapshot lists, QuerySnapshot cards) {
+    }
+
+    // data == null significa borrar el documento
+    record Write(DocumentReference ref, Map<String, Object> data) {
+        static Write delete(DocumentReference ref) {
+            return new Write(ref, null);
+        }
+    }
+}
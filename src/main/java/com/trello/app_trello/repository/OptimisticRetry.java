@@ -0,0 +1,71 @@
+package com.trello.app_trello.repository;
+
+import com.trello.app_trello.service.Futures;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Reintenta una escritura condicionada mientras falle por WriteConflictException,
+// con backoff exponencial y jitter, hasta un máximo de intentos.
+@Component
+class OptimisticRetry {
+
+    private static final long BASE_BACKOFF_MS = 10;
+    private static final long MAX_BACKOFF_MS = 200;
+
+    @Value("${board.store.max-attempts:5}")
+    private int maxAttempts;
+
+    @Autowired
+    private ContentionMetrics contentionMetrics;
+
+    <T> CompletableFuture<T> run(String boardId, Supplier<CompletableFuture<T>> attempt) {
+        contentionMetrics.recordMutation(boardId);
+        return attempt(boardId, attempt, 1);
+    }
+
+    // --- Métodos privados ---
+    private <T> CompletableFuture<T> attempt(String boardId, Supplier<CompletableFuture<T>> attempt, int number) {
+        CompletableFuture<T> result;
+        try {
+            result = attempt.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return result.handle((value, error) -> {
+            if (error == null) {
+                return CompletableFuture.completedFuture(value);
+            }
+            Throwable cause = Futures.unwrap(error);
+            if (!(cause instanceof WriteConflictException)) {
+                return CompletableFuture.<T>failedFuture(cause);
+            }
+            if (number >= maxAttempts) {
+                contentionMetrics.recordConflict(boardId);
+                return CompletableFuture.<T>failedFuture(new ResponseStatusException(
+                        HttpStatus.CONFLICT,
+                        "El tablero está siendo modificado por otros usuarios, intentá de nuevo"
+                ));
+            }
+            contentionMetrics.recordRetry(boardId);
+            return CompletableFuture
+                    .supplyAsync(() -> attempt(boardId, attempt, number + 1),
+                            CompletableFuture.delayedExecutor(backoff(number), TimeUnit.MILLISECONDS))
+                    .thenCompose(Function.identity());
+        }).thenCompose(Function.identity());
+    }
+
+    private long backoff(int attempt) {
+        long base = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(attempt - 1, 5));
+        return base + ThreadLocalRandom.current().nextLong(base + 1);
+    }
+}
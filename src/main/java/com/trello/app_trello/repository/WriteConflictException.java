@@ -0,0 +1,9 @@
+package com.trello.app_trello.repository;
+
+// Otro escritor modificó el tablero entre la lectura y la escritura
+class WriteConflictException extends RuntimeException {
+
+    WriteConflictException(String boardId) {
+        super("Conflicto de escritura en el tablero " + boardId, null, false, false);
+    }
+}
@@ -0,0 +1,258 @@
+package com.trello.app_trello.service;
+
+import com.trello.app_trello.BuissnessLogic.Board;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Cache de lectura delante del repositorio: tableros por ID más un índice dueño -> IDs.
+// Acotada por tamaño (LRU) y por TTL. Las escrituras invalidan, nunca pisan con datos viejos.
+// Recién arrancada, lo que no está en memoria se busca en el near-cache (BoardSnapshotStore).
+@Component
+public class BoardCache {
+
+    @Value("${board.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${board.cache.max-size:1000}")
+    private int maxSize;
+
+    @Value("${board.cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Autowired
+    private BoardSnapshotStore snapshotStore;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Invalidaciones que se recuerdan por clave; las más viejas se olvidan subiendo el piso (ver Stamps)
+    private static final int MAX_STAMPS = 10_000;
+
+    // Se incrementa en cada invalidación y la invalidación queda marcada en su clave (tablero o
+    // dueño): una lectura solo se cachea si no se invalidó esa clave después de empezar
+    private final AtomicLong generation = new AtomicLong();
+    private final Stamps boardStamps = new Stamps();
+    private final Stamps ownerStamps = new Stamps();
+
+    private final Object lock = new Object();
+    private Map<String, CacheEntry<Board>> boards;
+    private Map<String, CacheEntry<List<String>>> owners;
+
+    @PostConstruct
+    public void init() {
+        boards = boundedMap();
+        owners = boundedMap();
+        snapshotStore.attach(this);
+    }
+
+    public Optional<Board> get(String id) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        synchronized (lock) {
+            Board board = fresh(boards, id);
+            if (board != null) {
+                count(true);
+                return Optional.of(board);
+            }
+        }
+        Optional<Board> warm = snapshotStore.get(id);
+        count(warm.isPresent());
+        return warm;
+    }
+
+    public Optional<List<Board>> getByOwner(String owner) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        synchronized (lock) {
+            List<Board> result = ownerBoards(owner);
+            if (result != null) {
+                count(true);
+                return Optional.of(result);
+            }
+        }
+        Optional<List<Board>> warm = snapshotStore.getByOwner(owner);
+        count(warm.isPresent());
+        return warm;
+    }
+
+    // Marca el inicio de una lectura al almacenamiento
+    public long generation() {
+        return generation.get();
+    }
+
+    // true si el tablero (o el índice del dueño) no se invalidó después de "readGeneration"
+    public boolean unchangedSince(String id, long readGeneration) {
+        synchronized (lock) {
+            return boardStamps.get(id) <= readGeneration;
+        }
+    }
+
+    public boolean ownerUnchangedSince(String owner, long readGeneration) {
+        synchronized (lock) {
+            return ownerStamps.get(owner) <= readGeneration;
+        }
+    }
+
+    public void put(Board board, long readGeneration) {
+        if (!enabled || board == null || board.getId() == null) {
+            return;
+        }
+        synchronized (lock) {
+            if (boardStamps.get(board.getId()) <= readGeneration) {
+                boards.put(board.getId(), new CacheEntry<>(board, expiry()));
+            }
+        }
+    }
+
+    public void putByOwner(String owner, List<Board> ownerBoards, long readGeneration) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lock) {
+            // Un tablero del dueño que cambió durante la lectura deja vieja toda la lista
+            if (ownerStamps.get(owner) > readGeneration
+                    || ownerBoards.stream().anyMatch(board -> boardStamps.get(board.getId()) > readGeneration)) {
+                return;
+            }
+            long expiresAt = expiry();
+            List<String> ids = new ArrayList<>(ownerBoards.size());
+            for (Board board : ownerBoards) {
+                boards.put(board.getId(), new CacheEntry<>(board, expiresAt));
+                ids.add(board.getId());
+            }
+            owners.put(owner, new CacheEntry<>(List.copyOf(ids), expiresAt));
+        }
+    }
+
+    // Saca el tablero y cualquier índice de dueño que lo contenga
+    public void invalidate(String id) {
+        synchronized (lock) {
+            boardStamps.put(id, generation.incrementAndGet());
+            boards.remove(id);
+            owners.values().removeIf(entry -> entry.value().contains(id));
+        }
+        snapshotStore.invalidate(id);
+    }
+
+    public void invalidateOwner(String owner) {
+        if (owner == null) {
+            return;
+        }
+        synchronized (lock) {
+            ownerStamps.put(owner, generation.incrementAndGet());
+            owners.remove(owner);
+        }
+        snapshotStore.invalidateOwner(owner);
+    }
+
+    // Todo lo que hay en memoria, vencido o no, para guardar en el near-cache
+    public Contents contents() {
+        synchronized (lock) {
+            List<Board> cachedBoards = boards.values().stream().map(CacheEntry::value).toList();
+            Map<String, List<String>> ownerIds = new HashMap<>();
+            owners.forEach((owner, entry) -> ownerIds.put(owner, entry.value()));
+            return new Contents(cachedBoards, ownerIds);
+        }
+    }
+
+    public CacheStats stats() {
+        synchronized (lock) {
+            return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), boards.size(), owners.size(), maxSize);
+        }
+    }
+
+    // --- Métodos privados ---
+    // Bajo el lock: los tableros del dueño si están todos en memoria, o null
+    private List<Board> ownerBoards(String owner) {
+        List<String> ids = fresh(owners, owner);
+        if (ids == null) {
+            return null;
+        }
+        List<Board> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Board board = fresh(boards, id);
+            if (board == null) {
+                owners.remove(owner);
+                return null;
+            }
+            result.add(board);
+        }
+        return result;
+    }
+
+    private <V> Map<String, CacheEntry<V>> boundedMap() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry<V>> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    private <V> V fresh(Map<String, CacheEntry<V>> map, String key) {
+        CacheEntry<V> entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() - System.nanoTime() < 0) {
+            map.remove(key);
+            evictions.increment();
+            return null;
+        }
+        return entry.value();
+    }
+
+    private long expiry() {
+        return System.nanoTime() + ttlSeconds * 1_000_000_000L;
+    }
+
+    private void count(boolean hit) {
+        (hit ? hits : misses).increment();
+    }
+
+    private record CacheEntry<V>(V value, long expiresAt) {
+    }
+
+    // Última invalidación de cada clave, acotado a MAX_STAMPS. Al olvidar la más vieja el piso
+    // sube a su valor: una clave sin marca cuenta como invalidada en el piso, que es conservador
+    // (a lo sumo descarta una lectura que se podía cachear). Se usa bajo el lock.
+    private static final class Stamps {
+        private final LinkedHashMap<String, Long> stamps = new LinkedHashMap<>();
+        private long floor;
+
+        private long get(String key) {
+            Long stamp = stamps.get(key);
+            return stamp != null ? stamp : floor;
+        }
+
+        // Los valores crecen: reinsertando, el orden de la tabla es el de las marcas
+        private void put(String key, long stamp) {
+            stamps.remove(key);
+            stamps.put(key, stamp);
+            if (stamps.size() > MAX_STAMPS) {
+                Iterator<Map.Entry<String, Long>> eldest = stamps.entrySet().iterator();
+                floor = eldest.next().getValue();
+                eldest.remove();
+            }
+        }
+    }
+
+    public record Contents(List<Board> boards, Map<String, List<String>> owners) {
+    }
+
+    public record CacheStats(long hits, long misses, long evictions, int boards, int owners, int maxSize) {
+    }
+}
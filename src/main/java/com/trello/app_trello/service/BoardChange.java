@@ -0,0 +1,93 @@
+package com.trello.app_trello.service;
+
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.BuissnessLogic.BoardItems;
+import com.trello.app_trello.BuissnessLogic.Card;
+
+import java.util.*;
+
+// Un cambio incremental de un tablero, tal como se envía en el feed.
+// type: board-changed, list-added, list-changed, list-removed, card-added, card-changed,
+// card-removed. data es el estado nuevo del elemento (null al eliminar); las cards
+// incluyen listId, así que mover una card de lista llega como card-changed.
+public record BoardChange(String type, String listId, String cardId, Object data) {
+
+    // Cambios para pasar de "before" a "after". Vacío si son iguales.
+    // Requiere que listas y cards tengan ID (ver hasIds).
+    public static List<BoardChange> between(Board before, Board after) {
+        List<BoardChange> changes = new ArrayList<>();
+        if (!Objects.equals(before.getName(), after.getName()) || !Objects.equals(before.getOwner(), after.getOwner())) {
+            Map<String, Object> data = new HashMap<>();
+            data.put("name", after.getName());
+            data.put("owner", after.getOwner());
+            changes.add(new BoardChange("board-changed", null, null, data));
+        }
+
+        Map<String, ListState> oldLists = new LinkedHashMap<>();
+        Map<String, CardState> oldCards = new LinkedHashMap<>();
+        flatten(before, oldLists, oldCards);
+        Map<String, ListState> newLists = new LinkedHashMap<>();
+        Map<String, CardState> newCards = new LinkedHashMap<>();
+        flatten(after, newLists, newCards);
+
+        // Primero las listas nuevas (pueden recibir cards), al final las eliminadas
+        newLists.forEach((id, list) -> {
+            ListState previous = oldLists.get(id);
+            if (previous == null) {
+                changes.add(new BoardChange("list-added", id, null, list));
+            } else if (!previous.equals(list)) {
+                changes.add(new BoardChange("list-changed", id, null, list));
+            }
+        });
+        newCards.forEach((id, card) -> {
+            CardState previous = oldCards.get(id);
+            if (previous == null) {
+                changes.add(new BoardChange("card-added", card.listId(), id, card));
+            } else if (!previous.equals(card)) {
+                changes.add(new BoardChange("card-changed", card.listId(), id, card));
+            }
+        });
+        oldCards.forEach((id, card) -> {
+            if (!newCards.containsKey(id)) {
+                changes.add(new BoardChange("card-removed", card.listId(), id, null));
+            }
+        });
+        oldLists.keySet().stream()
+                .filter(id -> !newLists.containsKey(id))
+                .forEach(id -> changes.add(new BoardChange("list-removed", id, null, null)));
+        return changes;
+    }
+
+    // Tableros anteriores a los IDs estables no se pueden comparar elemento por elemento
+    public static boolean hasIds(Board board) {
+        for (com.trello.app_trello.BuissnessLogic.List list : BoardItems.lists(board)) {
+            if (list.getId() == null) {
+                return false;
+            }
+            for (Card card : BoardItems.cards(list)) {
+                if (card.getId() == null) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Listas sin sus cards y cards con el ID de su lista
+    private static void flatten(Board board, Map<String, ListState> lists, Map<String, CardState> cards) {
+        for (com.trello.app_trello.BuissnessLogic.List list : BoardItems.lists(board)) {
+            lists.put(list.getId(), new ListState(list.getId(), list.getTitle(), list.getPosition()));
+            for (Card card : BoardItems.cards(list)) {
+                cards.put(card.getId(), new CardState(card.getId(), list.getId(), card.getTitle(),
+                        card.getDescription(), card.getAssignedUsers(), card.getPosition()));
+            }
+        }
+    }
+
+    record ListState(String id, String title, String position) {
+    }
+
+    record CardState(String id, String listId, String title, String description,
+                     List<String> assignedUsers, String position) {
+    }
+}
@@ -0,0 +1,288 @@
+package com.trello.app_trello.service;
+
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.repository.BoardRepository;
+import com.trello.app_trello.repository.BoardWatch;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Feed de cambios por Server-Sent Events. Hay una sola escucha al almacenamiento por tablero
+// (un snapshot listener en Firestore), compartida por todos sus suscriptores; cada versión
+// nueva se compara con la anterior y se envían solo los cambios (ver BoardChange).
+// Al suscribirse se recibe un evento "snapshot" con el tablero completo.
+// Cada suscriptor tiene una cola acotada: si no lee al ritmo de los cambios se lo desconecta,
+// y al reconectarse recibe un snapshot nuevo.
+// Cada evento se arma una sola vez y el resultado (inmutable) se encola en todos los suscriptores.
+// Los eventos se serializan con Jackson fuera de un controlador: la imagen nativa necesita
+// que se declaren para reflexión (RegisterReflectionForBinding).
+@Component
+@RegisterReflectionForBinding({BoardChange.class, BoardChange.ListState.class, BoardChange.CardState.class})
+public class BoardChangeFeed {
+
+    private static final String SNAPSHOT = "snapshot";
+    private static final String DELETED = "board-deleted";
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> PING = frame(SseEmitter.event().comment("ping"));
+
+    @Value("${board.feed.queue-size:256}")
+    private int queueSize;
+
+    @Value("${board.feed.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
+
+    @Value("${board.feed.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    @Qualifier("boardFeedExecutor")
+    private Executor sendExecutor;
+
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+
+    private final LongAdder subscriptions = new LongAdder();
+    private final LongAdder eventsSent = new LongAdder();
+    private final LongAdder droppedSubscribers = new LongAdder();
+
+    private ScheduledExecutorService heartbeatScheduler;
+
+    @PostConstruct
+    public void start() {
+        heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "board-feed-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Un comentario periódico detecta conexiones muertas y evita cortes de proxies por inactividad
+        heartbeatScheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatScheduler.shutdownNow();
+        channels.values().forEach(channel -> {
+            channel.close();
+            channel.cancel();
+        });
+    }
+
+    public SseEmitter subscribe(String boardId) {
+        SseEmitter emitter = newEmitter(TimeUnit.MINUTES.toMillis(timeoutMinutes));
+        Subscriber subscriber = new Subscriber(emitter);
+        synchronized (channels) {
+            Channel channel = channels.get(boardId);
+            boolean first = channel == null;
+            if (first) {
+                channel = new Channel(boardId);
+                channels.put(boardId, channel);
+            }
+            subscriber.channel = channel;
+            channel.add(subscriber);
+            if (first) {
+                // El primer aviso (estado actual) puede llegar acá mismo, con el suscriptor ya agregado
+                channel.open();
+            }
+        }
+        subscriptions.increment();
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        return emitter;
+    }
+
+    public FeedStats stats() {
+        int subscribers = channels.values().stream().mapToInt(Channel::size).sum();
+        return new FeedStats(channels.size(), subscribers, subscriptions.sum(), eventsSent.sum(),
+                droppedSubscribers.sum(), queueSize);
+    }
+
+    // channels: tableros con escucha activa; droppedSubscribers: desconectados por no leer a tiempo
+    public record FeedStats(int channels, int subscribers, long subscriptions, long eventsSent,
+                            long droppedSubscribers, int queueSize) {
+    }
+
+    // Separado para que los tests puedan ver lo que recibe cada suscriptor
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    // --- Métodos privados ---
+    private void heartbeat() {
+        channels.values().forEach(channel -> channel.publish(PING));
+    }
+
+    // Fuera del hilo que llama: quien cierra puede tener tomado el lock del canal o de la escucha,
+    // y acá se toma el de channels (que va antes que esos)
+    private void release(Channel channel) {
+        sendExecutor.execute(() -> releaseNow(channel));
+    }
+
+    private void releaseNow(Channel channel) {
+        synchronized (channels) {
+            if (channel.size() == 0 && channels.remove(channel.boardId, channel)) {
+                channel.cancel();
+            }
+        }
+    }
+
+    private static Set<ResponseBodyEmitter.DataWithMediaType> event(String name, Object data) {
+        return frame(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+    }
+
+    // build() modifica el builder en cada llamada (agrega el fin de evento) y no es thread-safe:
+    // no se puede compartir entre suscriptores, se comparte lo que arma
+    private static Set<ResponseBodyEmitter.DataWithMediaType> frame(SseEmitter.SseEventBuilder event) {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(event.build()));
+    }
+
+    // Escucha compartida de un tablero y el último estado enviado, para calcular los cambios
+    private final class Channel {
+        private final String boardId;
+        private final Set<Subscriber> subscribers = new LinkedHashSet<>();
+        private BoardWatch watch;
+        private Board latest;
+
+        private Channel(String boardId) {
+            this.boardId = boardId;
+        }
+
+        void open() {
+            watch = boardRepository.watch(boardId, this::onChange, error -> close());
+        }
+
+        synchronized void add(Subscriber subscriber) {
+            subscribers.add(subscriber);
+            if (latest != null) {
+                subscriber.offer(event(SNAPSHOT, latest));
+            }
+        }
+
+        synchronized void remove(Subscriber subscriber) {
+            subscribers.remove(subscriber);
+        }
+
+        synchronized int size() {
+            return subscribers.size();
+        }
+
+        synchronized void onChange(Optional<Board> board) {
+            if (board.isEmpty()) {
+                publish(event(DELETED, Map.of("id", boardId)));
+                latest = null;
+                close();
+                return;
+            }
+            Board next = board.get();
+            if (latest == null || !BoardChange.hasIds(latest) || !BoardChange.hasIds(next)) {
+                publish(event(SNAPSHOT, next));
+            } else {
+                BoardChange.between(latest, next).forEach(change -> publish(event(change.type(), change)));
+            }
+            latest = next;
+        }
+
+        synchronized void publish(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            for (Subscriber subscriber : List.copyOf(subscribers)) {
+                if (!subscriber.offer(event)) {
+                    // Cliente lento: se lo desconecta en vez de acumular eventos sin límite
+                    droppedSubscribers.increment();
+                    subscriber.close();
+                }
+            }
+        }
+
+        // Cierra todas las suscripciones; el último en irse cancela la escucha
+        void close() {
+            List<Subscriber> current;
+            synchronized (this) {
+                current = List.copyOf(subscribers);
+            }
+            current.forEach(Subscriber::close);
+            release(this);
+        }
+
+        void cancel() {
+            if (watch != null) {
+                watch.cancel();
+            }
+        }
+    }
+
+    // Cola acotada por cliente; un solo envío en curso a la vez, en el executor del feed
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue = new ArrayBlockingQueue<>(queueSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private Channel channel;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // false si la cola está llena
+        boolean offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (closed.get()) {
+                return true;
+            }
+            if (!queue.offer(event)) {
+                return false;
+            }
+            schedule();
+            return true;
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            queue.clear();
+            emitter.complete();
+            Channel current = channel;
+            if (current != null) {
+                current.remove(this);
+                release(current);
+            }
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                sendExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    emitter.send(event);
+                    eventsSent.increment();
+                }
+            } catch (IOException | RuntimeException e) {
+                // El cliente se fue o el envío falló: no se le puede seguir enviando
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // Un evento pudo llegar entre el último poll y liberar el flag
+            if (!closed.get() && !queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
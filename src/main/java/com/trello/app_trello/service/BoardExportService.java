@@ -0,0 +1,186 @@
+package com.trello.app_trello.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.BuissnessLogic.BoardItems;
+import com.trello.app_trello.BuissnessLogic.Card;
+import com.trello.app_trello.BuissnessLogic.Page;
+import com.trello.app_trello.repository.BoardRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Exporta tableros escribiendo listas y cards a medida que se recorren, sin armar la
+// respuesta completa en memoria. El export por usuario lee los tableros de a páginas,
+// así que el consumo no crece con la cantidad de tableros.
+// Los métodos bloquean: se llaman desde el hilo que escribe la respuesta, no desde un callback.
+@Service
+public class BoardExportService {
+
+    private static final int EXPORT_PAGE_SIZE = 50;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private WriteBehindBuffer writeBehindBuffer;
+
+    // json: tableros anidados como en GET /api/boards/{id}
+    // ndjson: una línea por registro (board, list, card), cada uno con los IDs de sus padres
+    public enum Format {
+        JSON(MediaType.APPLICATION_JSON, "json"),
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formato de export no soportado: " + value);
+        }
+    }
+
+    public void writeBoard(Board board, Format format, OutputStream out) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            writeBoard(generator, board, format);
+        }
+    }
+
+    public void writeBoardsByOwner(String owner, Format format, OutputStream out) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            if (format == Format.JSON) {
+                generator.writeStartArray();
+            }
+            String cursor = null;
+            do {
+                Page<Board> page = Futures.await(boardRepository.findPage(owner, EXPORT_PAGE_SIZE, cursor));
+                for (Board board : page.getItems()) {
+                    // Lo guardado puede estar atrasado respecto de la copia con escrituras pendientes
+                    writeBoard(generator, writeBehindBuffer.get(board.getId()).orElse(board), format);
+                }
+                cursor = page.getNextPageToken();
+            } while (cursor != null);
+            if (format == Format.JSON) {
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    // --- Métodos privados ---
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.createGenerator(out, JsonEncoding.UTF8);
+        // El stream lo cierra el contenedor; entre registros NDJSON va un salto de línea, no un espacio
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    private void writeBoard(JsonGenerator generator, Board board, Format format) throws IOException {
+        if (format == Format.NDJSON) {
+            writeRecords(generator, board);
+        } else {
+            writeNested(generator, board);
+        }
+        // Lo escrito hasta acá sale al cliente; el próximo tablero no se acumula encima
+        generator.flush();
+    }
+
+    private void writeNested(JsonGenerator generator, Board board) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", board.getId());
+        generator.writeStringField("name", board.getName());
+        generator.writeStringField("owner", board.getOwner());
+        generator.writeArrayFieldStart("lists");
+        for (com.trello.app_trello.BuissnessLogic.List list : BoardItems.lists(board)) {
+            generator.writeStartObject();
+            writeFields(generator, list);
+            generator.writeArrayFieldStart("cards");
+            for (Card card : BoardItems.cards(list)) {
+                generator.writeStartObject();
+                writeFields(generator, card);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private void writeRecords(JsonGenerator generator, Board board) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "board");
+        generator.writeStringField("id", board.getId());
+        generator.writeStringField("name", board.getName());
+        generator.writeStringField("owner", board.getOwner());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+
+        for (com.trello.app_trello.BuissnessLogic.List list : BoardItems.lists(board)) {
+            generator.writeStartObject();
+            generator.writeStringField("type", "list");
+            generator.writeStringField("boardId", board.getId());
+            writeFields(generator, list);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+
+            for (Card card : BoardItems.cards(list)) {
+                generator.writeStartObject();
+                generator.writeStringField("type", "card");
+                generator.writeStringField("boardId", board.getId());
+                generator.writeStringField("listId", list.getId());
+                writeFields(generator, card);
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    // Campos de una lista, sin sus cards (se escriben aparte)
+    private void writeFields(JsonGenerator generator, com.trello.app_trello.BuissnessLogic.List list) throws IOException {
+        generator.writeStringField("id", list.getId());
+        generator.writeStringField("title", list.getTitle());
+        generator.writeStringField("position", list.getPosition());
+    }
+
+    private void writeFields(JsonGenerator generator, Card card) throws IOException {
+        generator.writeStringField("id", card.getId());
+        generator.writeStringField("title", card.getTitle());
+        generator.writeStringField("description", card.getDescription());
+        generator.writeArrayFieldStart("assignedUsers");
+        if (card.getAssignedUsers() != null) {
+            for (String user : card.getAssignedUsers()) {
+                generator.writeString(user);
+            }
+        }
+        generator.writeEndArray();
+        generator.writeStringField("position", card.getPosition());
+    }
+}
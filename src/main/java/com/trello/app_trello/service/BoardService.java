@@ -1,47 +1,87 @@
 package com.trello.app_trello.service;
 
-import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trello.app_trello.BuissnessLogic.AssignedCard;
 import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.BuissnessLogic.BoardBatch;
+import com.trello.app_trello.BuissnessLogic.BoardBatchResult;
+import com.trello.app_trello.BuissnessLogic.BoardItems;
+import com.trello.app_trello.BuissnessLogic.BoardOperation;
+import com.trello.app_trello.BuissnessLogic.BoardSummary;
+import com.trello.app_trello.BuissnessLogic.BulkJob;
 import com.trello.app_trello.BuissnessLogic.Card;
-import com.trello.app_trello.Firebase.Firebase;
+import com.trello.app_trello.BuissnessLogic.CardMove;
+import com.trello.app_trello.BuissnessLogic.CardSearchHit;
+import com.trello.app_trello.BuissnessLogic.OrderKeys;
+import com.trello.app_trello.BuissnessLogic.Page;
+import com.trello.app_trello.repository.BoardMutation;
+import com.trello.app_trello.repository.BoardRepository;
+import com.trello.app_trello.repository.FirestoreFutures;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+// Cada operación tiene una variante asíncrona (usada por el controlador) y una
+// sincrónica que solo espera el resultado de la primera.
 @Service
 public class BoardService {
 
-    private static final String BOARD_COLLECTION = "boards";
-    private static final String OWNER_FIELD = "owner";
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_BATCH_OPERATIONS = 500;
+    public static final int MAX_SEARCH_RESULTS = 100;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private BoardCache boardCache;
+
+    @Autowired
+    private WriteBehindBuffer writeBehindBuffer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CardSearchIndex searchIndex;
 
     @Autowired
-    private Firebase firebase;
+    private BulkJobs bulkJobs;
+
+    @Autowired
+    private ReadCoalescing readCoalescing;
+
+    // Migraciones en curso a la vez en normalizeAllBoardsAsync (como las operaciones masivas)
+    @Value("${board.bulk.parallelism:4}")
+    private int bulkParallelism;
 
     // Obtener todos los tableros
     public List<Board> getAllBoards() {
-        try {
-            QuerySnapshot querySnapshot = getCollection().get().get();
-            return querySnapshot.getDocuments().stream()
-                    .map(this::documentToBoard)
-                    .collect(Collectors.toList());
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
-            throw new ResponseStatusException(
-                    HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Error al obtener todos los tableros",
-                    e
-            );
-        }
+        return Futures.await(getAllBoardsAsync());
+    }
+
+    public CompletableFuture<List<Board>> getAllBoardsAsync() {
+        return boardRepository.findAll();
     }
 
     // Obtener un tablero por ID
     public Optional<Board> getBoardById(String id) {
+        return Futures.await(getBoardByIdAsync(id));
+    }
+
+    public CompletableFuture<Optional<Board>> getBoardByIdAsync(String id) {
         if (id == null || id.isEmpty()) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
@@ -49,23 +89,30 @@ public class BoardService {
             );
         }
 
-        try {
-            DocumentSnapshot document = getCollection().document(id).get().get();
-            return document.exists()
-                    ? Optional.of(documentToBoard(document))
-                    : Optional.empty();
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
-            throw new ResponseStatusException(
-                    HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Error al obtener el tablero con ID: " + id,
-                    e
-            );
+        // Con write-behind, la copia en memoria tiene mutaciones que todavía no se escribieron
+        Optional<Board> buffered = writeBehindBuffer.get(id);
+        if (buffered.isPresent()) {
+            return CompletableFuture.completedFuture(buffered);
         }
+
+        Optional<Board> cached = boardCache.get(id);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        long generation = boardCache.generation();
+        return readCoalescing.board(id, generation, () -> boardRepository.findById(id).thenApply(board -> {
+            board.ifPresent(found -> boardCache.put(found, generation));
+            return board;
+        }));
     }
 
     // Obtener tableros por usuario
     public List<Board> getBoardsByUser(String userId) {
+        return Futures.await(getBoardsByUserAsync(userId));
+    }
+
+    public CompletableFuture<List<Board>> getBoardsByUserAsync(String userId) {
         if (userId == null || userId.isEmpty()) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
@@ -73,47 +120,56 @@ public class BoardService {
             );
         }
 
-        try {
-            QuerySnapshot querySnapshot = getCollection()
-                    .whereEqualTo(OWNER_FIELD, userId)
-                    .get()
-                    .get();
-
-            return querySnapshot.getDocuments().stream()
-                    .map(this::documentToBoard)
-                    .collect(Collectors.toList());
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
-            throw new ResponseStatusException(
-                    HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Error al obtener tableros del usuario: " + userId,
-                    e
-            );
+        Optional<List<Board>> cached = boardCache.getByOwner(userId);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
         }
+
+        long generation = boardCache.generation();
+        return readCoalescing.owner(userId, generation, () -> boardRepository.findByOwner(userId).thenApply(boards -> {
+            boardCache.putByOwner(userId, boards, generation);
+            return boards;
+        }));
+    }
+
+    // Listados paginados: owner == null trae los tableros de todos los usuarios.
+    // El token es opaco para el cliente; se devuelve tal cual para pedir la página siguiente.
+    public CompletableFuture<Page<BoardSummary>> getBoardSummariesAsync(String owner, int pageSize, String pageToken) {
+        validatePageSize(pageSize);
+        return boardRepository.findSummaryPage(owner, pageSize, decodePageToken(pageToken))
+                .thenApply(page -> new Page<>(page.getItems(), encodePageToken(page.getNextPageToken())));
+    }
+
+    public CompletableFuture<Page<Board>> getBoardsPageAsync(String owner, int pageSize, String pageToken) {
+        validatePageSize(pageSize);
+        long generation = boardCache.generation();
+        return boardRepository.findPage(owner, pageSize, decodePageToken(pageToken))
+                .thenApply(page -> {
+                    page.getItems().forEach(board -> boardCache.put(board, generation));
+                    return new Page<>(page.getItems(), encodePageToken(page.getNextPageToken()));
+                });
     }
 
     // Crear un nuevo tablero
     public Board createBoard(Board board) {
-        try {
-            DocumentReference docRef = getCollection().document();
-            board.setId(docRef.getId());
-
-            ApiFuture<WriteResult> writeResult = docRef.set(board);
-            writeResult.get();
+        return Futures.await(createBoardAsync(board));
+    }
 
-            return board;
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
-            throw new ResponseStatusException(
-                    HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Error al crear el tablero",
-                    e
-            );
-        }
+    public CompletableFuture<Board> createBoardAsync(Board board) {
+        board.setId(boardRepository.nextId());
+        return boardRepository.save(board).thenApply(created -> {
+            boardCache.invalidateOwner(created.getOwner());
+            searchIndex.index(created);
+            return created;
+        });
     }
 
     // Actualizar un tablero existente
     public Board updateBoard(String id, Board board) {
+        return Futures.await(updateBoardAsync(id, board));
+    }
+
+    public CompletableFuture<Board> updateBoardAsync(String id, Board board) {
         if (!id.equals(board.getId())) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
@@ -121,90 +177,106 @@ public class BoardService {
             );
         }
 
-        try {
-            ApiFuture<WriteResult> writeResult = getCollection()
-                    .document(id)
-                    .set(board);
+        // El reemplazo completo va después de lo que haya pendiente en write-behind
+        return writeBehindBuffer.flush(id).thenCompose(flushed -> {
+            writeBehindBuffer.discard(id);
+            return boardRepository.save(board);
+        }).thenApply(updated -> {
+            boardCache.invalidate(id);
+            boardCache.invalidateOwner(updated.getOwner());
+            searchIndex.index(updated);
+            return updated;
+        });
+    }
 
-            writeResult.get();
-            return board;
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
-            throw new ResponseStatusException(
-                    HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Error al actualizar el tablero",
-                    e
-            );
-        }
+    // Actualizar parte de un tablero con JSON Merge Patch (RFC 7386) o JSON Patch (RFC 6902).
+    // Se aplica sobre la última versión y se escriben solo los campos que cambiaron.
+    public CompletableFuture<Board> mergePatchBoardAsync(String id, JsonNode patch) {
+        return patchBoard(id, document -> JsonPatches.mergePatch(document, patch));
+    }
+
+    public CompletableFuture<Board> jsonPatchBoardAsync(String id, JsonNode patch) {
+        return patchBoard(id, document -> JsonPatches.jsonPatch(document, patch));
     }
 
     // Eliminar un tablero
     public void deleteBoard(String id) {
-        try {
-            ApiFuture<WriteResult> deleteResult = getCollection()
-                    .document(id)
-                    .delete();
+        Futures.await(deleteBoardAsync(id));
+    }
 
-            deleteResult.get();
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
-            throw new ResponseStatusException(
-                    HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Error al eliminar el tablero",
-                    e
-            );
-        }
+    public CompletableFuture<Void> deleteBoardAsync(String id) {
+        writeBehindBuffer.discard(id);
+        return boardRepository.deleteById(id)
+                .thenRun(() -> {
+                    boardCache.invalidate(id);
+                    searchIndex.remove(id);
+                });
     }
 
+    //Eliminar card
     public void deleteCard(String boardId, String listTitle, String cardTitle) {
-        try {
-            DocumentReference docRef = getCollection().document(boardId);
-            DocumentSnapshot snapshot = docRef.get().get();
-
-            if (!snapshot.exists()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Tablero no encontrado");
-            }
-
-            // Convertir a objeto y obtener listas
-            Board board = documentToBoard(snapshot);
-            List<Map<String, Object>> allLists = new ArrayList<>(board.getLists());
+        Futures.await(deleteCardAsync(boardId, listTitle, cardTitle));
+    }
 
-            // 1. Buscar la lista usando streams (más limpio que for+break)
-            Optional<Map<String, Object>> targetListOpt = allLists.stream()
-                    .filter(list -> listTitle.equals(list.get("title")))
-                    .findFirst();
+    public CompletableFuture<Void> deleteCardAsync(String boardId, String listTitle, String cardTitle) {
+        return mutateBoard(boardId, board -> removeCards(listByTitle(board, listTitle), card -> cardTitle.equals(card.getTitle())))
+                .thenApply(board -> null);
+    }
 
-            if (targetListOpt.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Lista no encontrada");
-            }
+    public CompletableFuture<Void> deleteCardByIdAsync(String boardId, String listId, String cardId) {
+        return mutateBoard(boardId, board -> removeCards(listById(board, listId), card -> cardId.equals(card.getId())))
+                .thenApply(board -> null);
+    }
 
-            Map<String, Object> targetList = targetListOpt.get();
-            List<Map<String, Object>> cards = (List<Map<String, Object>>) targetList.get("cards");
+    //Crear card
+    public Card AddCard(String boardId, String listTitle, Card card) {
+        return Futures.await(AddCardAsync(boardId, listTitle, card));
+    }
 
-            // 2. Filtrar la card a eliminar (sin usar Iterator)
-            List<Map<String, Object>> updatedCards = cards.stream()
-                    .filter(card -> !cardTitle.equals(card.get("title")))
-                    .toList();
+    public CompletableFuture<Card> AddCardAsync(String boardId, String listTitle, Card card) {
+        if (boardId == null || boardId.isEmpty()) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "ID de tablero no válido"
+            );
+        }
 
-            if (cards.size() == updatedCards.size()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Card no encontrada");
-            }
+        // El ID se genera una sola vez: la mutación puede reintentarse
+        card.setId(BoardItems.newId());
+        return mutateBoard(boardId, board -> appendCard(findOrCreateList(board, listTitle), card))
+                .thenApply(board -> card);
+    }
 
-            // 3. Actualizar la lista y el documento
-            targetList.put("cards", updatedCards);
-            docRef.update("lists", allLists).get();
+    public CompletableFuture<Card> AddCardToListByIdAsync(String boardId, String listId, Card card) {
+        card.setId(BoardItems.newId());
+        return mutateBoard(boardId, board -> appendCard(listById(board, listId), card))
+                .thenApply(board -> card);
+    }
 
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
-            throw new ResponseStatusException(
-                    HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Error al eliminar la card",
-                    e
-            );
+    // Mover una card de lista o de lugar con una sola escritura: la card no deja de existir en el
+    // medio (como con borrar y volver a crear) y solo cambian su clave de orden y su lista.
+    // Devuelve la card en su nuevo lugar.
+    public CompletableFuture<Card> moveCardAsync(String boardId, String cardId, CardMove move) {
+        if (move == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Falta el destino de la card");
         }
+        AtomicReference<Card> moved = new AtomicReference<>();
+        return mutateBoard(boardId, board -> {
+                    com.trello.app_trello.BuissnessLogic.List targetList = operationList(board, move.getListId(), move.getListTitle());
+                    boolean changed = moveCard(board, cardId, targetList, move.getBeforeCardId(), move.getAfterCardId());
+                    moved.set(BoardItems.cards(targetList).get(BoardItems.indexOfCard(targetList, cardId)));
+                    return changed;
+                })
+                .thenApply(board -> moved.get());
     }
 
-    public Card AddCard(String boardId, String listTitle, Card card) {
+    //Crear lista
+    public com.trello.app_trello.BuissnessLogic.List AddList(String boardId, com.trello.app_trello.BuissnessLogic.List list) {
+        return Futures.await(AddListAsync(boardId, list));
+    }
+
+    public CompletableFuture<com.trello.app_trello.BuissnessLogic.List> AddListAsync(
+            String boardId, com.trello.app_trello.BuissnessLogic.List list) {
         if (boardId == null || boardId.isEmpty()) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
@@ -212,208 +284,488 @@ public class BoardService {
             );
         }
 
-        try {
-            // 1. Obtener referencia al documento del tablero
-            DocumentReference boardRef = getCollection().document(boardId);
-            DocumentSnapshot boardSnapshot = boardRef.get().get();
-
-            if (!boardSnapshot.exists()) {
-                throw new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "Tablero no encontrado"
-                );
-            }
+        // Retornar la lista creada
+        com.trello.app_trello.BuissnessLogic.List createdList = new com.trello.app_trello.BuissnessLogic.List();
+        createdList.setId(BoardItems.newId());
+        createdList.setTitle(list.getTitle());
+        createdList.setCards(new ArrayList<>());
 
-            // 2. Convertir a objeto Board
-            Board board = documentToBoard(boardSnapshot);
+        return mutateBoard(boardId, board -> appendList(board, createdList))
+                .thenApply(board -> createdList);
+    }
 
-            // 3. Inicializar lists si es null
-            if (board.getLists() == null) {
-                board.setLists(new ArrayList<>());
-            }
+    //Eliminar lista
+    public void deleteList (String id, String title){
+        Futures.await(deleteListAsync(id, title));
+    }
 
-            // 4. Buscar o crear la lista
-            Optional<Map<String, Object>> listOpt = findOrCreateList(board.getLists(), listTitle);
-            Map<String, Object> targetList = listOpt.get();
+    public CompletableFuture<Void> deleteListAsync(String id, String title) {
+        return removeList(id, list -> title.equals(list.getTitle()));
+    }
 
-            // 5. Obtener o inicializar cards
-            List<Map<String, Object>> cards = (List<Map<String, Object>>) targetList.get("cards");
-            if (cards == null) {
-                cards = new ArrayList<>();
-                targetList.put("cards", cards);
-            }
+    public CompletableFuture<Void> deleteListByIdAsync(String boardId, String listId) {
+        return removeList(boardId, list -> listId.equals(list.getId()));
+    }
 
-            // 6. Agregar la nueva card
-            cards.add(convertCardToMap(card));
+    // Aplicar varias operaciones en orden con una lectura y una escritura.
+    // Cada operación informa su resultado; las que fallan no cortan el resto salvo en un batch atómico.
+    public CompletableFuture<BoardBatchResult> applyBatchAsync(String boardId, BoardBatch batch) {
+        List<BoardOperation> operations = batch.getOperations();
+        if (operations == null || operations.isEmpty() || operations.size() > MAX_BATCH_OPERATIONS) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "El batch debe tener entre 1 y " + MAX_BATCH_OPERATIONS + " operaciones"
+            );
+        }
 
-            // 7. Actualizar Firestore
-            ApiFuture<WriteResult> updateResult = boardRef.update("lists", board.getLists());
-            updateResult.get();
+        // Los IDs nuevos se generan una sola vez: la mutación puede reintentarse
+        List<String> newIds = operations.stream().map(operation -> BoardItems.newId()).toList();
+        AtomicReference<BoardBatchResult> outcome = new AtomicReference<>();
+        return mutateBoard(boardId, board -> {
+                    // Un batch atómico trabaja sobre una copia: si falla, el tablero que se devuelve
+                    // (y se indexa) queda como estaba
+                    Board target = batch.isAtomic() ? objectMapper.convertValue(board, Board.class) : board;
+                    List<BoardBatchResult.OperationResult> results = new ArrayList<>();
+                    boolean changed = false;
+                    boolean failed = false;
+                    for (int i = 0; i < operations.size(); i++) {
+                        try {
+                            String id = applyOperation(target, operations.get(i), newIds.get(i));
+                            results.add(new BoardBatchResult.OperationResult(i, HttpStatus.OK.value(), id, null));
+                            changed = true;
+                        } catch (ResponseStatusException e) {
+                            results.add(new BoardBatchResult.OperationResult(i, e.getStatusCode().value(), null, e.getReason()));
+                            failed = true;
+                        }
+                    }
+                    boolean applied = !(batch.isAtomic() && failed);
+                    outcome.set(new BoardBatchResult(applied, results));
+                    if (applied && target != board) {
+                        board.setName(target.getName());
+                        board.setOwner(target.getOwner());
+                        board.setLists(target.getLists());
+                    }
+                    return applied && changed;
+                })
+                .thenApply(board -> outcome.get());
+    }
 
-            return card;
+    // Búsqueda de cards por título, descripción y asignados, en el índice en memoria
+    // (no consulta Firestore). owner == null busca en todos los tableros.
+    public List<CardSearchHit> searchCards(String query, String owner, int limit) {
+        if (!searchIndex.isEnabled()) {
+            throw new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "La búsqueda no está habilitada"
+            );
+        }
+        if (query == null || query.isBlank()) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "La búsqueda no puede estar vacía"
+            );
+        }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "El límite debe estar entre 1 y " + MAX_SEARCH_RESULTS
+            );
+        }
+        return searchIndex.search(query, owner, limit);
+    }
 
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
+    // Cards asignadas al usuario en todos los tableros, del mismo índice en memoria.
+    // Mismo esquema de páginas que los listados de tableros.
+    public Page<AssignedCard> getAssignedCards(String userId, int pageSize, String pageToken) {
+        if (userId == null || userId.isEmpty()) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "ID de usuario no válido"
+            );
+        }
+        if (!searchIndex.isEnabled()) {
             throw new ResponseStatusException(
-                    HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Error al agregar card al tablero",
-                    e
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "La búsqueda no está habilitada"
             );
         }
+        validatePageSize(pageSize);
+        Page<AssignedCard> page = searchIndex.assignedCards(userId, pageSize, decodePageToken(pageToken));
+        return new Page<>(page.getItems(), encodePageToken(page.getNextPageToken()));
     }
 
-    private Optional<Map<String, Object>> findOrCreateList(List<Map<String, Object>> lists, String listTitle) {
-        Optional<Map<String, Object>> existingList = lists.stream()
-                .filter(list -> listTitle.equals(list.get("title")))
-                .findFirst();
+    // Migrar tableros embebidos al formato normalizado
+    public CompletableFuture<Boolean> normalizeBoardAsync(String id) {
+        return writeBehindBuffer.flush(id)
+                .thenCompose(flushed -> boardRepository.normalize(id))
+                .thenApply(migrated -> {
+                    boardCache.invalidate(id);
+                    return migrated;
+                });
+    }
 
-        if (existingList.isPresent()) {
-            return existingList;
-        }
+    // Devuelve cuántos tableros se migraron. Recorre los tableros por páginas (solo los resúmenes)
+    // con a lo sumo bulkParallelism migraciones en curso, para no pasar el límite de admisión
+    public CompletableFuture<Long> normalizeAllBoardsAsync() {
+        return normalizePage(null, 0);
+    }
 
-        Map<String, Object> newList = new HashMap<>();
-        newList.put("title", listTitle);
-        newList.put("cards", new ArrayList<>());
-        lists.add(newList);
-        return Optional.of(newList);
+    // Operaciones masivas sobre todos los tableros de un usuario. Corren en segundo plano:
+    // devuelven la operación recién empezada y el avance se consulta con getBulkJob.
+    public BulkJob deleteBoardsByOwner(String owner) {
+        return bulkJobs.start("delete", owner,
+                progress -> boardRepository.deleteByOwner(owner, progress),
+                this::boardsRemoved,
+                () -> boardCache.invalidateOwner(owner));
     }
 
-    private Map<String, Object> convertCardToMap(Card card) {
-        Map<String, Object> cardMap = new HashMap<>();
-        cardMap.put("title", card.getTitle());
-        cardMap.put("description", card.getDescription());
-        cardMap.put("assignedUsers", card.getAssignedUsers() != null ?
-                card.getAssignedUsers() : new ArrayList<>());
-        return cardMap;
+    public BulkJob archiveBoardsByOwner(String owner) {
+        return bulkJobs.start("archive", owner,
+                progress -> boardRepository.archiveByOwner(owner, progress),
+                this::boardsRemoved,
+                () -> boardCache.invalidateOwner(owner));
     }
 
-    //Crear lista
-    public com.trello.app_trello.BuissnessLogic.List AddList(String boardId, com.trello.app_trello.BuissnessLogic.List list) {
-        if (boardId == null || boardId.isEmpty()) {
+    public BulkJob transferBoards(String owner, String newOwner) {
+        if (newOwner == null || newOwner.isBlank() || newOwner.equals(owner)) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
-                    "ID de tablero no válido"
+                    "El nuevo dueño es obligatorio y debe ser otro usuario"
             );
         }
+        return bulkJobs.start("transfer", owner,
+                progress -> boardRepository.transferOwner(owner, newOwner, progress),
+                boardIds -> boardIds.forEach(id -> {
+                    boardCache.invalidate(id);
+                    searchIndex.changeOwner(id, newOwner);
+                }),
+                () -> {
+                    boardCache.invalidateOwner(owner);
+                    boardCache.invalidateOwner(newOwner);
+                });
+    }
 
-        try {
-            // 1. Obtener referencia al documento del tablero
-            DocumentReference boardRef = getCollection().document(boardId);
-            DocumentSnapshot boardSnapshot = boardRef.get().get();
-
-            if (!boardSnapshot.exists()) {
-                throw new ResponseStatusException(
+    public BulkJob getBulkJob(String owner, String jobId) {
+        return bulkJobs.get(jobId)
+                .filter(job -> job.getOwner().equals(owner))
+                .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND,
-                        "Tablero no encontrado"
-                );
-            }
+                        "Operación no encontrada"
+                ));
+    }
 
-            // 2. Convertir a objeto Board
-            Board board = documentToBoard(boardSnapshot);
+    // --- Métodos privados ---
+    private CompletableFuture<Long> normalizePage(String pageToken, long migrated) {
+        return boardRepository.findSummaryPage(null, MAX_PAGE_SIZE, pageToken).thenCompose(page -> {
+            List<Supplier<CompletableFuture<Boolean>>> migrations = page.getItems().stream()
+                    .<Supplier<CompletableFuture<Boolean>>>map(summary -> () -> normalizeBoardAsync(summary.getId()))
+                    .toList();
+            return FirestoreFutures.inParallel(migrations, bulkParallelism).thenCompose(results -> {
+                long total = migrated + results.stream().filter(Boolean::booleanValue).count();
+                return page.getNextPageToken() == null
+                        ? CompletableFuture.completedFuture(total)
+                        : normalizePage(page.getNextPageToken(), total);
+            });
+        });
+    }
 
-            // 3. Inicializar lists si es null
-            if (board.getLists() == null) {
-                board.setLists(new ArrayList<>());
-            }
+    // Tableros borrados o archivados por una operación masiva
+    private void boardsRemoved(List<String> boardIds) {
+        for (String id : boardIds) {
+            writeBehindBuffer.discard(id);
+            boardCache.invalidate(id);
+            searchIndex.remove(id);
+        }
+    }
 
-            // 4. Verificar si la lista ya existe
-            boolean listExists = board.getLists().stream()
-                    .anyMatch(existingList -> list.getTitle().equals(existingList.get("title")));
+    // Mutación optimista con reintentos; 404 si el tablero no existe.
+    // Antes de la mutación asigna IDs y repara claves de orden (tableros anteriores o claves que
+    // mandó el cliente), así las operaciones trabajan siempre con claves válidas. La reparación
+    // se escribe junto con la mutación; si la mutación no cambia nada no se escribe.
+    private CompletableFuture<Board> mutateBoard(String boardId, BoardMutation mutation) {
+        return mutate(boardId, board -> {
+                    BoardItems.ensureIds(board);
+                    if (!mutation.apply(board)) {
+                        return false;
+                    }
+                    BoardItems.ensureIds(board);
+                    return true;
+                })
+                .thenApply(board -> {
+                    boardCache.invalidate(boardId);
+                    board.ifPresent(searchIndex::index);
+                    return board.orElseThrow(() -> new ResponseStatusException(
+                            HttpStatus.NOT_FOUND,
+                            "Tablero no encontrado"
+                    ));
+                });
+    }
 
-            if (listExists) {
-                throw new ResponseStatusException(
-                        HttpStatus.CONFLICT,
-                        "Ya existe una lista con este título"
-                );
-            }
+    private void validatePageSize(int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE
+            );
+        }
+    }
 
-            // 5. Crear la nueva lista como Map para Firestore
-            Map<String, Object> newListMap = new HashMap<>();
-            newListMap.put("title", list.getTitle());
-            newListMap.put("cards", new ArrayList<>()); // Inicializar array de cards vacío
+    // El token es el ID del último tablero de la página anterior, codificado en Base64 URL-safe
+    private String encodePageToken(String lastId) {
+        if (lastId == null) {
+            return null;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
 
-            // 6. Agregar la nueva lista al tablero
-            List<Map<String, Object>> updatedLists = new ArrayList<>(board.getLists());
-            updatedLists.add(newListMap);
+    private String decodePageToken(String pageToken) {
+        if (pageToken == null || pageToken.isEmpty()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Token de página inválido", e);
+        }
+    }
 
-            // 7. Actualizar el tablero en Firestore
-            ApiFuture<WriteResult> updateResult = boardRef.update("lists", updatedLists);
-            updateResult.get();
+    // Aplica una operación del batch y devuelve el ID de la lista o card afectada.
+    // Valida todo antes de modificar el tablero: si lanza, el tablero queda como estaba.
+    private String applyOperation(Board board, BoardOperation operation, String newId) {
+        if (operation == null || operation.getType() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tipo de operación no válido");
+        }
+        switch (operation.getType()) {
+            case ADD_CARD -> {
+                Card card = operation.getCard();
+                if (card == null || card.getTitle() == null || card.getTitle().isEmpty()) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La card debe tener título");
+                }
+                com.trello.app_trello.BuissnessLogic.List targetList = operation.getListId() != null
+                        ? listById(board, operation.getListId())
+                        : findOrCreateList(board, requireListTitle(operation.getListTitle()));
+                card.setId(newId);
+                appendCard(targetList, card);
+                return newId;
+            }
+            case REMOVE_CARD -> {
+                com.trello.app_trello.BuissnessLogic.List targetList = operationList(board, operation.getListId(), operation.getListTitle());
+                String cardId = operation.getCardId();
+                if (cardId != null) {
+                    removeCards(targetList, card -> cardId.equals(card.getId()));
+                    return cardId;
+                }
+                String cardTitle = operation.getCardTitle();
+                if (cardTitle != null) {
+                    removeCards(targetList, card -> cardTitle.equals(card.getTitle()));
+                    return null;
+                }
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Falta cardId o cardTitle");
+            }
+            case MOVE_CARD -> {
+                if (operation.getCardId() == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Falta cardId");
+                }
+                com.trello.app_trello.BuissnessLogic.List targetList = operationList(board, operation.getTargetListId(), operation.getTargetListTitle());
+                moveCard(board, operation.getCardId(), targetList, operation.getBeforeCardId(), operation.getAfterCardId());
+                return operation.getCardId();
+            }
+            case ADD_LIST -> {
+                com.trello.app_trello.BuissnessLogic.List list = new com.trello.app_trello.BuissnessLogic.List();
+                list.setId(newId);
+                list.setTitle(requireListTitle(operation.getTitle()));
+                appendList(board, list);
+                return newId;
+            }
+            case REMOVE_LIST -> {
+                com.trello.app_trello.BuissnessLogic.List targetList = operationList(board, operation.getListId(), operation.getListTitle());
+                BoardItems.removeLists(board, list -> list == targetList);
+                return targetList.getId();
+            }
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tipo de operación no válido");
+        }
+    }
 
-            // 8. Retornar la lista creada
-            com.trello.app_trello.BuissnessLogic.List createdList = new com.trello.app_trello.BuissnessLogic.List();
-            createdList.setTitle(list.getTitle());
-            createdList.setCards(new ArrayList<>());
+    private com.trello.app_trello.BuissnessLogic.List operationList(Board board, String listId, String listTitle) {
+        if (listId != null) {
+            return listById(board, listId);
+        }
+        return listByTitle(board, requireListTitle(listTitle));
+    }
 
-            return createdList;
+    private String requireListTitle(String title) {
+        if (title == null || title.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Falta el ID o el título de la lista");
+        }
+        return title;
+    }
 
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
-            throw new ResponseStatusException(
-                    HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Error al agregar lista al tablero",
-                    e
-            );
+    // Mueve la card a la lista destino, antes de beforeCardId, después de afterCardId o al final.
+    // Solo cambia la clave de orden de la card movida; si ya estaba en ese lugar no cambia nada.
+    private boolean moveCard(Board board, String cardId, com.trello.app_trello.BuissnessLogic.List targetList,
+                             String beforeCardId, String afterCardId) {
+        if (beforeCardId != null && afterCardId != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Indicar beforeCardId o afterCardId, no los dos");
         }
+        String referenceId = beforeCardId != null ? beforeCardId : afterCardId;
+        if (cardId.equals(referenceId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Una card no puede moverse junto a sí misma");
+        }
+        com.trello.app_trello.BuissnessLogic.List sourceList = BoardItems.findListOfCard(board, cardId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Card no encontrada"));
+        if (referenceId != null && BoardItems.indexOfCard(targetList, referenceId) < 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Card de referencia no encontrada en la lista destino");
+        }
+
+        int sourceIndex = BoardItems.indexOfCard(sourceList, cardId);
+        Card card = BoardItems.cards(sourceList).remove(sourceIndex);
+        List<Card> targetCards = BoardItems.cards(targetList);
+        int index = beforeCardId != null ? BoardItems.indexOfCard(targetList, beforeCardId)
+                : afterCardId != null ? BoardItems.indexOfCard(targetList, afterCardId) + 1
+                : targetCards.size();
+        if (sourceList == targetList && index == sourceIndex) {
+            targetCards.add(index, card);
+            return false;
+        }
+        String lower = index > 0 ? targetCards.get(index - 1).getPosition() : null;
+        String upper = index < targetCards.size() ? targetCards.get(index).getPosition() : null;
+        card.setPosition(OrderKeys.between(lower, upper));
+        targetCards.add(index, card);
+        return true;
     }
 
-    public void deleteList (String id, String title){
+    private CompletableFuture<Board> patchBoard(String id, UnaryOperator<JsonNode> patch) {
         if (id == null || id.isEmpty()) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
                     "ID de tablero no válido"
             );
         }
-        try {
-            DocumentReference documentReference = getCollection().document(id);
-            DocumentSnapshot documentSnapshot = documentReference.get().get();
-
-            Board board = documentToBoard(documentSnapshot);
-            List <Map<String, Object>> lists = board.getLists();
 
-            if (lists!=null){
-                boolean removed = lists.removeIf(lista ->title.equals(lista.get("title")));
-                if(removed){
-                    ApiFuture<WriteResult> future = documentReference.update("lists",lists);
-                    WriteResult result = future.get();
-                }
+        return mutateBoard(id, board -> {
+            JsonNode before = objectMapper.valueToTree(board);
+            JsonNode after = patch.apply(before);
+            if (after.equals(before)) {
+                return false;
+            }
+            Board patched;
+            try {
+                patched = objectMapper.treeToValue(after, Board.class);
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El patch deja un tablero inválido", e);
+            }
+            if (!id.equals(patched.getId())) {
+                throw new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST,
+                        "No se puede modificar el ID del tablero"
+                );
             }
+            board.setName(patched.getName());
+            board.setOwner(patched.getOwner());
+            board.setLists(patched.getLists());
+            return true;
+        }).thenApply(patched -> {
+            // invalidate(id) ya quitó el tablero del índice del dueño anterior
+            boardCache.invalidateOwner(patched.getOwner());
+            return patched;
+        });
+    }
 
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
+    // Escritura directa (optimista, con reintentos) o encolada en write-behind si está activo
+    private CompletableFuture<Optional<Board>> mutate(String boardId, BoardMutation mutation) {
+        if (writeBehindBuffer.isEnabled()) {
+            return writeBehindBuffer.submit(boardId, mutation);
+        }
+        return boardRepository.mutate(boardId, mutation);
+    }
+
+    private CompletableFuture<Void> removeList(String boardId, Predicate<com.trello.app_trello.BuissnessLogic.List> match) {
+        if (boardId == null || boardId.isEmpty()) {
             throw new ResponseStatusException(
-                    HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Error al eliminar el tablero",
-                    e
+                    HttpStatus.BAD_REQUEST,
+                    "ID de tablero no válido"
             );
         }
+
+        // Si el tablero o la lista no existen no hay nada que hacer
+        return mutate(boardId, board -> BoardItems.removeLists(board, match))
+                .thenAccept(board -> {
+                    boardCache.invalidate(boardId);
+                    board.ifPresent(searchIndex::index);
+                });
     }
 
-    // --- Métodos privados ---
-    private CollectionReference getCollection() {
-        return firebase.getFirestore().collection(BOARD_COLLECTION);
+    private com.trello.app_trello.BuissnessLogic.List listByTitle(Board board, String listTitle) {
+        return BoardItems.findList(board, listTitle)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Lista no encontrada"));
     }
-    private Map<String, Object> cardToMap(Card card) {
-        Map<String, Object> cardMap = new HashMap<>();
-        cardMap.put("title", card.getTitle());
-        cardMap.put("description", card.getDescription());
-        cardMap.put("assignedUsers", card.getAssignedUsers());
-        return cardMap;
+
+    private com.trello.app_trello.BuissnessLogic.List listById(Board board, String listId) {
+        return BoardItems.findListById(board, listId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Lista no encontrada"));
     }
-    private Board documentToBoard(DocumentSnapshot document) {
-        try {
-            Board board = new Board();
-            board.setId(document.getId());
-            board.setName(document.getString("name"));
-            board.setOwner(document.getString("owner"));
-            board.setLists((ArrayList<Map<String, Object>>) document.get("lists"));
-            return board;
-        } catch (Exception e) {
+
+    // Quita de la lista las cards que coinciden (por título pueden ser varias)
+    private boolean removeCards(com.trello.app_trello.BuissnessLogic.List targetList, Predicate<Card> match) {
+        boolean removed = BoardItems.cards(targetList).removeIf(match);
+        if (!removed) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Card no encontrada");
+        }
+        return true;
+    }
+
+    // Agrega la card al final de la lista
+    private boolean appendCard(com.trello.app_trello.BuissnessLogic.List targetList, Card card) {
+        card.setPosition(OrderKeys.after(BoardItems.lastCardPosition(targetList)));
+        BoardItems.cards(targetList).add(copyCard(card));
+        return true;
+    }
+
+    // Agrega una lista vacía al final del tablero
+    private boolean appendList(Board board, com.trello.app_trello.BuissnessLogic.List list) {
+        // Verificar si la lista ya existe
+        if (BoardItems.findList(board, list.getTitle()).isPresent()) {
             throw new ResponseStatusException(
-                    HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Error al convertir documento a Board",
-                    e
+                    HttpStatus.CONFLICT,
+                    "Ya existe una lista con este título"
             );
         }
+
+        list.setPosition(OrderKeys.after(BoardItems.lastListPosition(board)));
+        BoardItems.addList(board, newList(list.getId(), list.getTitle(), list.getPosition()));
+        return true;
+    }
+
+    private com.trello.app_trello.BuissnessLogic.List findOrCreateList(Board board, String listTitle) {
+        Optional<com.trello.app_trello.BuissnessLogic.List> existingList = BoardItems.findList(board, listTitle);
+        if (existingList.isPresent()) {
+            return existingList.get();
+        }
+
+        com.trello.app_trello.BuissnessLogic.List newList = newList(BoardItems.newId(), listTitle,
+                OrderKeys.after(BoardItems.lastListPosition(board)));
+        BoardItems.addList(board, newList);
+        return newList;
+    }
+
+    private com.trello.app_trello.BuissnessLogic.List newList(String id, String title, String position) {
+        com.trello.app_trello.BuissnessLogic.List list = new com.trello.app_trello.BuissnessLogic.List();
+        list.setId(id);
+        list.setTitle(title);
+        list.setPosition(position);
+        list.setCards(new ArrayList<>()); // Inicializar array de cards vacío
+        return list;
+    }
+
+    // El tablero guarda su propia copia: la card recibida se devuelve al cliente
+    private Card copyCard(Card card) {
+        Card copy = new Card();
+        copy.setId(card.getId());
+        copy.setTitle(card.getTitle());
+        copy.setDescription(card.getDescription());
+        copy.setAssignedUsers(card.getAssignedUsers() != null ?
+                new ArrayList<>(card.getAssignedUsers()) : new ArrayList<>());
+        copy.setPosition(card.getPosition());
+        return copy;
     }
-}
\ No newline at end of file
+}
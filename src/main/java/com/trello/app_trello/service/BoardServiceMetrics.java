@@ -0,0 +1,104 @@
+package com.trello.app_trello.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+// Tiempo de cada método público de BoardService (timer "board.service", tag method) y errores
+// por causa ("board.service.errors": status HTTP y la excepción de origen, así un 500 de
+// Firestore no se confunde con uno de conversión). En los métodos asíncronos el tiempo
+// corre hasta que el future termina. Las llamadas internas del servicio no se cuentan dos veces.
+@Aspect
+@Component
+public class BoardServiceMetrics {
+
+    static final String TIMER = "board.service";
+    static final String ERRORS = "board.service.errors";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.trello.app_trello.service.BoardService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            stop(sample, method, e);
+            throw e;
+        }
+        if (result instanceof CompletableFuture<?> future) {
+            // Se devuelve el mismo future: cancelarlo tiene que seguir llegando a la RPC
+            future.whenComplete((value, error) -> stop(sample, method, error));
+        } else {
+            stop(sample, method, null);
+        }
+        return result;
+    }
+
+    // --- Métodos privados ---
+    private void stop(Timer.Sample sample, String method, Throwable error) {
+        Throwable cause = unwrap(error);
+        String status = status(cause);
+        sample.stop(Timer.builder(TIMER)
+                .description("Tiempo de las operaciones de BoardService")
+                .tag("method", method)
+                .tag("outcome", outcome(status))
+                .register(meterRegistry));
+        if (cause != null) {
+            Counter.builder(ERRORS)
+                    .description("Errores de BoardService por status y causa")
+                    .tag("method", method)
+                    .tag("status", status)
+                    .tag("cause", rootCause(cause).getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private static String status(Throwable cause) {
+        if (cause == null) {
+            return "200";
+        }
+        if (cause instanceof ResponseStatusException statusException) {
+            return String.valueOf(statusException.getStatusCode().value());
+        }
+        return "500";
+    }
+
+    private static String outcome(String status) {
+        return switch (status.charAt(0)) {
+            case '2' -> "SUCCESS";
+            case '4' -> "CLIENT_ERROR";
+            default -> "SERVER_ERROR";
+        };
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        Throwable root = error;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root;
+    }
+}
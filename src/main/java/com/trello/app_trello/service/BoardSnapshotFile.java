@@ -0,0 +1,256 @@
+package com.trello.app_trello.service;
+
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.BuissnessLogic.BoardItems;
+import com.trello.app_trello.BuissnessLogic.Card;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+// Formato binario del near-cache (ver BoardSnapshotStore), pensado para leerse mapeado en
+// memoria sin decodificar todo al abrir:
+//   cabecera  int MAGIC, int FORMAT, long posición del índice
+//   datos     un bloque por tablero: name, listas (id, title, position) y sus cards
+//             (id, title, description, position, assignedUsers)
+//   índice    por tablero: id, owner, versión, posición y largo del bloque;
+//             por dueño: owner y los IDs de sus tableros
+// Strings: int con el largo en bytes UTF-8 (-1 = null) y los bytes. Listas: int con la cantidad (-1 = null).
+final class BoardSnapshotFile {
+
+    private static final int MAGIC = 0x42534e50; // "BSNP"
+    private static final int FORMAT = 1;
+
+    private final MappedByteBuffer buffer;
+    private final Map<String, Entry> entries;
+    private final Map<String, List<String>> owners;
+
+    private BoardSnapshotFile(MappedByteBuffer buffer, Map<String, Entry> entries, Map<String, List<String>> owners) {
+        this.buffer = buffer;
+        this.entries = entries;
+        this.owners = owners;
+    }
+
+    // Mapea el archivo y lee solo el índice; los tableros se decodifican al pedirlos
+    static BoardSnapshotFile open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        ByteBuffer in = buffer.duplicate();
+        if (in.remaining() < 16 || in.getInt() != MAGIC || in.getInt() != FORMAT) {
+            throw new IOException("Formato de snapshot no reconocido: " + path);
+        }
+        in.position(Math.toIntExact(in.getLong()));
+        int boardCount = in.getInt();
+        Map<String, Entry> entries = new HashMap<>(Math.max(16, boardCount * 2));
+        for (int i = 0; i < boardCount; i++) {
+            Entry entry = new Entry(readString(in), readString(in), in.getLong(), in.getInt(), in.getInt());
+            entries.put(entry.id(), entry);
+        }
+        int ownerCount = in.getInt();
+        Map<String, List<String>> owners = new HashMap<>(Math.max(16, ownerCount * 2));
+        for (int i = 0; i < ownerCount; i++) {
+            String owner = readString(in);
+            int size = in.getInt();
+            List<String> ids = new ArrayList<>(size);
+            for (int j = 0; j < size; j++) {
+                ids.add(readString(in));
+            }
+            owners.put(owner, List.copyOf(ids));
+        }
+        return new BoardSnapshotFile(buffer, entries, owners);
+    }
+
+    // Escribe en un archivo temporal mapeado y lo mueve encima del anterior: quien tenga
+    // abierto el anterior lo sigue leyendo entero. Solo tableros con versión conocida.
+    static int write(Path path, Collection<Board> boards, Map<String, List<String>> owners) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT);
+        out.writeLong(0); // posición del índice, se completa al final
+
+        List<Entry> written = new ArrayList<>();
+        Set<String> ids = new HashSet<>();
+        for (Board board : boards) {
+            if (board.getId() == null || board.storeVersion() == 0 || !ids.add(board.getId())) {
+                continue;
+            }
+            int offset = out.size();
+            writeBoard(out, board);
+            written.add(new Entry(board.getId(), board.getOwner(), board.storeVersion(), offset, out.size() - offset));
+        }
+
+        int indexPosition = out.size();
+        out.writeInt(written.size());
+        for (Entry entry : written) {
+            writeString(out, entry.id());
+            writeString(out, entry.owner());
+            out.writeLong(entry.version());
+            out.writeInt(entry.offset());
+            out.writeInt(entry.length());
+        }
+        // Un dueño solo entra si todos sus tableros quedaron en el archivo
+        Map<String, List<String>> complete = new HashMap<>();
+        owners.forEach((owner, ownerIds) -> {
+            if (ids.containsAll(ownerIds)) {
+                complete.put(owner, ownerIds);
+            }
+        });
+        out.writeInt(complete.size());
+        for (Map.Entry<String, List<String>> owner : complete.entrySet()) {
+            writeString(out, owner.getKey());
+            out.writeInt(owner.getValue().size());
+            for (String id : owner.getValue()) {
+                writeString(out, id);
+            }
+        }
+        out.flush();
+
+        ByteBuffer content = ByteBuffer.wrap(bytes.toByteArray());
+        content.putLong(8, indexPosition);
+        Path absolute = path.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path temporary = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, content.remaining());
+            mapped.put(content);
+            mapped.force();
+        }
+        Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return written.size();
+    }
+
+    Map<String, Entry> entries() {
+        return entries;
+    }
+
+    Map<String, List<String>> owners() {
+        return owners;
+    }
+
+    // Cada llamada devuelve una copia nueva del tablero
+    Board decode(Entry entry) {
+        ByteBuffer in = buffer.duplicate();
+        in.position(entry.offset());
+        Board board = new Board();
+        board.setId(entry.id());
+        board.setOwner(entry.owner());
+        board.setName(readString(in));
+        int listCount = in.getInt();
+        if (listCount >= 0) {
+            board.setLists(new ArrayList<>(listCount));
+            for (int i = 0; i < listCount; i++) {
+                BoardItems.addList(board, readList(in));
+            }
+        }
+        board.storeVersion(entry.version());
+        return board;
+    }
+
+    record Entry(String id, String owner, long version, int offset, int length) {
+    }
+
+    // --- Métodos privados ---
+    private static void writeBoard(DataOutputStream out, Board board) throws IOException {
+        writeString(out, board.getName());
+        if (board.getLists() == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(board.getLists().size());
+        for (com.trello.app_trello.BuissnessLogic.List list : board.getLists()) {
+            writeString(out, list.getId());
+            writeString(out, list.getTitle());
+            writeString(out, list.getPosition());
+            if (list.getCards() == null) {
+                out.writeInt(-1);
+                continue;
+            }
+            out.writeInt(list.getCards().size());
+            for (Card card : list.getCards()) {
+                writeString(out, card.getId());
+                writeString(out, card.getTitle());
+                writeString(out, card.getDescription());
+                writeString(out, card.getPosition());
+                writeStrings(out, card.getAssignedUsers());
+            }
+        }
+    }
+
+    private static com.trello.app_trello.BuissnessLogic.List readList(ByteBuffer in) {
+        com.trello.app_trello.BuissnessLogic.List list = new com.trello.app_trello.BuissnessLogic.List();
+        list.setId(readString(in));
+        list.setTitle(readString(in));
+        list.setPosition(readString(in));
+        int cardCount = in.getInt();
+        if (cardCount >= 0) {
+            ArrayList<Card> cards = new ArrayList<>(cardCount);
+            for (int i = 0; i < cardCount; i++) {
+                Card card = new Card();
+                card.setId(readString(in));
+                card.setTitle(readString(in));
+                card.setDescription(readString(in));
+                card.setPosition(readString(in));
+                card.setAssignedUsers(readStrings(in));
+                cards.add(card);
+            }
+            list.setCards(cards);
+        }
+        return list;
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static ArrayList<String> readStrings(ByteBuffer in) {
+        int size = in.getInt();
+        if (size < 0) {
+            return null;
+        }
+        ArrayList<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
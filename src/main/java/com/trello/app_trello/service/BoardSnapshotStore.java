@@ -0,0 +1,243 @@
+package com.trello.app_trello.service;
+
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.repository.BoardRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// Near-cache local para arrancar en caliente: los tableros de BoardCache se guardan en un
+// archivo binario (BoardSnapshotFile) al apagar y cada write-interval-seconds. Al arrancar
+// el archivo se mapea en memoria y BoardCache lo usa como segundo nivel mientras, en segundo
+// plano, se compara la versión de cada tablero con la del almacenamiento (una consulta por
+// dueño, sin leer contenido). Lo que coincide pasa a BoardCache; lo que no, se descarta.
+// Al terminar esa verificación el archivo deja de servirse.
+@Component
+public class BoardSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(BoardSnapshotStore.class);
+    private static final int RECONCILE_PARALLELISM = 8;
+
+    // Vacío desactiva el near-cache
+    @Value("${board.near-cache.path:}")
+    private String path;
+
+    @Value("${board.near-cache.write-interval-seconds:300}")
+    private long writeIntervalSeconds;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    // Lo que queda sin verificar del archivo abierto; invalidar saca de acá
+    private final Map<String, BoardSnapshotFile.Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> owners = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder confirmed = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+
+    // null cuando no hay nada que servir (sin archivo o ya verificado)
+    private volatile BoardSnapshotFile file;
+    private volatile int lastWritten;
+    private BoardCache cache;
+    private ScheduledExecutorService executor;
+
+    public boolean isEnabled() {
+        return path != null && !path.isEmpty();
+    }
+
+    // Solo se lee el índice: los tableros se decodifican del archivo mapeado al pedirlos
+    @PostConstruct
+    public void open() {
+        if (!isEnabled()) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "board-near-cache");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Path snapshot = Path.of(path);
+        if (!Files.exists(snapshot)) {
+            return;
+        }
+        try {
+            BoardSnapshotFile opened = BoardSnapshotFile.open(snapshot);
+            entries.putAll(opened.entries());
+            owners.putAll(opened.owners());
+            file = opened;
+            log.info("Near-cache: {} tableros de {} sin verificar", entries.size(), path);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Near-cache: no se pudo abrir {}, se arranca en frío", path, e);
+        }
+    }
+
+    // BoardCache se registra al iniciar: es de donde salen los tableros a guardar y adonde van los verificados
+    void attach(BoardCache boardCache) {
+        this.cache = boardCache;
+        if (isEnabled() && writeIntervalSeconds > 0) {
+            executor.scheduleWithFixedDelay(this::write, writeIntervalSeconds, writeIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startReconcile() {
+        if (file != null) {
+            executor.execute(this::reconcile);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        write();
+    }
+
+    Optional<Board> get(String id) {
+        BoardSnapshotFile current = file;
+        BoardSnapshotFile.Entry entry = current != null ? entries.get(id) : null;
+        if (entry == null) {
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(current.decode(entry));
+    }
+
+    Optional<List<Board>> getByOwner(String owner) {
+        BoardSnapshotFile current = file;
+        List<String> ids = current != null ? owners.get(owner) : null;
+        if (ids == null) {
+            return Optional.empty();
+        }
+        List<Board> boards = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            BoardSnapshotFile.Entry entry = entries.get(id);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            boards.add(current.decode(entry));
+        }
+        hits.increment();
+        return Optional.of(boards);
+    }
+
+    void invalidate(String id) {
+        BoardSnapshotFile.Entry removed = entries.remove(id);
+        if (removed != null && removed.owner() != null) {
+            owners.remove(removed.owner());
+        }
+    }
+
+    void invalidateOwner(String owner) {
+        owners.remove(owner);
+    }
+
+    public NearCacheStats stats() {
+        return new NearCacheStats(isEnabled(), file != null, entries.size(), owners.size(),
+                hits.sum(), confirmed.sum(), discarded.sum(), lastWritten);
+    }
+
+    // serving: el archivo todavía se está verificando y se sirve; boards/owners: lo que queda sin
+    // verificar; confirmed/discarded: resultado de la verificación; lastWritten: tableros en la última escritura
+    public record NearCacheStats(boolean enabled, boolean serving, int boards, int owners, long hits,
+                                 long confirmed, long discarded, int lastWritten) {
+    }
+
+    // --- Métodos privados ---
+    // Corre en el hilo del near-cache: puede esperar a cada grupo de consultas
+    private void reconcile() {
+        BoardSnapshotFile current = file;
+        Map<String, List<BoardSnapshotFile.Entry>> byOwner = entries.values().stream()
+                .filter(entry -> entry.owner() != null)
+                .collect(Collectors.groupingBy(BoardSnapshotFile.Entry::owner));
+        List<String> pending = new ArrayList<>(byOwner.keySet());
+        try {
+            for (int from = 0; from < pending.size(); from += RECONCILE_PARALLELISM) {
+                List<CompletableFuture<Void>> group = pending
+                        .subList(from, Math.min(pending.size(), from + RECONCILE_PARALLELISM)).stream()
+                        .map(owner -> reconcileOwner(current, owner, byOwner.get(owner)))
+                        .toList();
+                CompletableFuture.allOf(group.toArray(CompletableFuture[]::new)).join();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Near-cache: no se pudo verificar todo el snapshot, se descarta el resto", e);
+        } finally {
+            file = null;
+            discarded.add(entries.size());
+            entries.clear();
+            owners.clear();
+            log.info("Near-cache: {} tableros verificados, {} descartados", confirmed.sum(), discarded.sum());
+        }
+    }
+
+    private CompletableFuture<Void> reconcileOwner(BoardSnapshotFile current, String owner,
+                                                   List<BoardSnapshotFile.Entry> ownerEntries) {
+        long generation = cache.generation();
+        return boardRepository.findVersions(owner).thenAccept(versions -> {
+            Map<String, Board> verified = new HashMap<>();
+            for (BoardSnapshotFile.Entry entry : ownerEntries) {
+                // Si se invalidó mientras tanto, ya no está en entries
+                if (entries.get(entry.id()) != entry) {
+                    continue;
+                }
+                Long version = versions.get(entry.id());
+                if (version != null && version == entry.version()) {
+                    Board board = current.decode(entry);
+                    cache.put(board, generation);
+                    verified.put(entry.id(), board);
+                    confirmed.increment();
+                } else {
+                    discarded.increment();
+                }
+                entries.remove(entry.id(), entry);
+            }
+            // El listado del dueño sirve solo si no apareció ni desapareció ningún tablero
+            List<String> ids = owners.remove(owner);
+            if (ids != null && versions.keySet().equals(new HashSet<>(ids)) && verified.keySet().containsAll(ids)) {
+                cache.putByOwner(owner, ids.stream().map(verified::get).toList(), generation);
+            }
+        });
+    }
+
+    // Lo de BoardCache más lo que todavía no se verificó del archivo anterior
+    private synchronized void write() {
+        if (!isEnabled() || cache == null) {
+            return;
+        }
+        BoardCache.Contents contents = cache.contents();
+        List<Board> boards = new ArrayList<>(contents.boards());
+        Map<String, List<String>> ownerIds = new HashMap<>(contents.owners());
+        BoardSnapshotFile current = file;
+        if (current != null) {
+            Set<String> ids = boards.stream().map(Board::getId).collect(Collectors.toSet());
+            entries.values().stream()
+                    .filter(entry -> !ids.contains(entry.id()))
+                    .forEach(entry -> boards.add(current.decode(entry)));
+            owners.forEach(ownerIds::putIfAbsent);
+        }
+        try {
+            lastWritten = BoardSnapshotFile.write(Path.of(path), boards, ownerIds);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Near-cache: no se pudo escribir {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.trello.app_trello.service;
+
+import com.trello.app_trello.BuissnessLogic.BoardItems;
+import com.trello.app_trello.BuissnessLogic.BulkJob;
+import com.trello.app_trello.repository.BulkProgress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Operaciones masivas en curso y las últimas terminadas, para consultar su avance.
+// Un usuario no puede tener dos a la vez: se pisarían los mismos tableros.
+@Component
+public class BulkJobs {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkJobs.class);
+    private static final int MAX_FINISHED = 200;
+
+    // En orden de inicio; se accede bajo su propio lock
+    private final Map<String, Tracker> jobs = new LinkedHashMap<>();
+
+    // Lanza "work" y vuelve enseguida. onCommitted recibe los tableros de cada lote confirmado;
+    // onFinished se llama al terminar, haya fallado o no.
+    public BulkJob start(String operation, String owner,
+                         Function<BulkProgress, CompletableFuture<Integer>> work,
+                         Consumer<List<String>> onCommitted, Runnable onFinished) {
+        Tracker tracker;
+        synchronized (jobs) {
+            boolean running = jobs.values().stream()
+                    .anyMatch(job -> job.owner.equals(owner) && job.finishedAt == null);
+            if (running) {
+                throw new ResponseStatusException(
+                        HttpStatus.CONFLICT,
+                        "Ya hay una operación masiva en curso para el usuario"
+                );
+            }
+            tracker = new Tracker(BoardItems.newId(), operation, owner);
+            jobs.put(tracker.id, tracker);
+            evictFinished();
+        }
+
+        BulkProgress progress = new BulkProgress() {
+            @Override
+            public void started(int total) {
+                tracker.total = total;
+            }
+
+            @Override
+            public void committed(List<String> boardIds) {
+                onCommitted.accept(boardIds);
+                tracker.processed.addAndGet(boardIds.size());
+            }
+        };
+        CompletableFuture<Integer> result;
+        try {
+            result = work.apply(progress);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((processed, error) -> {
+            onFinished.run();
+            tracker.finish(error);
+            if (error != null) {
+                log.warn("Operación masiva {} de {} falló tras {} tableros", operation, owner, tracker.processed.get(), error);
+            }
+        });
+        return tracker.snapshot();
+    }
+
+    public Optional<BulkJob> get(String id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id)).map(Tracker::snapshot);
+        }
+    }
+
+    // --- Métodos privados ---
+    // Bajo el lock de jobs: descarta las terminadas más viejas
+    private void evictFinished() {
+        long finished = jobs.values().stream().filter(job -> job.finishedAt != null).count();
+        Iterator<Tracker> iterator = jobs.values().iterator();
+        while (finished > MAX_FINISHED && iterator.hasNext()) {
+            if (iterator.next().finishedAt != null) {
+                iterator.remove();
+                finished--;
+            }
+        }
+    }
+
+    private static final class Tracker {
+        private final String id;
+        private final String operation;
+        private final String owner;
+        private final Instant startedAt = Instant.now();
+        private final AtomicInteger processed = new AtomicInteger();
+        private volatile int total;
+        private volatile String error;
+        private volatile Instant finishedAt;
+
+        private Tracker(String id, String operation, String owner) {
+            this.id = id;
+            this.operation = operation;
+            this.owner = owner;
+        }
+
+        private void finish(Throwable failure) {
+            if (failure != null) {
+                Throwable cause = Futures.unwrap(failure);
+                error = cause instanceof ResponseStatusException status ? status.getReason() : cause.getMessage();
+            }
+            finishedAt = Instant.now();
+        }
+
+        private BulkJob snapshot() {
+            Instant finished = finishedAt;
+            String status = finished == null ? "running" : error == null ? "completed" : "failed";
+            return new BulkJob(id, operation, owner, status, total, processed.get(), error, startedAt, finished);
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package com.trello.app_trello.service;
+
+import com.trello.app_trello.BuissnessLogic.AssignedCard;
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.BuissnessLogic.BoardItems;
+import com.trello.app_trello.BuissnessLogic.Card;
+import com.trello.app_trello.BuissnessLogic.CardSearchHit;
+import com.trello.app_trello.BuissnessLogic.Page;
+import com.trello.app_trello.repository.BoardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Índice invertido en memoria de las cards: término -> cards que lo contienen, con un peso
+// por campo (título 3, asignado 2, descripción 1). Los términos van en minúsculas y sin
+// acentos. Una búsqueda exige todos los términos; el último también vale como prefijo
+// ("dise" encuentra "diseño"). El puntaje suma peso * idf de cada término.
+//
+// Aparte, un índice asignado -> cards (por ID de usuario exacto), ordenado por tablero y card
+// para poder paginarlo.
+//
+// Se arma al arrancar leyendo todos los tableros de a páginas, y después lo mantiene
+// BoardService en cada escritura: solo se reindexan las cards que cambiaron.
+// Las escrituras hechas por otras instancias no llegan acá hasta el próximo arranque.
+@Component
+public class CardSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CardSearchIndex.class);
+
+    private static final int BUILD_PAGE_SIZE = 100;
+    private static final int MAX_PREFIX_TERMS = 50;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int ASSIGNEE_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    @Value("${board.search.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, IndexedBoard> boards = new HashMap<>();
+    // Ordenado para poder recorrer los términos que empiezan con un prefijo
+    private final NavigableMap<String, Map<IndexedCard, Integer>> postings = new TreeMap<>();
+    // Usuario -> cards asignadas, por clave boardId/cardId
+    private final Map<String, NavigableMap<String, IndexedCard>> assigned = new HashMap<>();
+    private int cardCount;
+
+    // Mientras se arma el índice: tableros borrados, para no volver a agregarlos con una lectura vieja
+    private final Set<String> deletedWhileBuilding = new HashSet<>();
+    private volatile boolean ready;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (enabled) {
+            buildFrom(null);
+        }
+    }
+
+    // Reemplaza lo indexado del tablero por su estado actual
+    public void index(Board board) {
+        if (!enabled || board.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            update(board);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String boardId) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            IndexedBoard indexed = boards.remove(boardId);
+            if (indexed != null) {
+                indexed.cards.values().forEach(this::unindex);
+            }
+            if (!ready) {
+                deletedWhileBuilding.add(boardId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Cambio de dueño sin leer el tablero (transferencias masivas)
+    public void changeOwner(String boardId, String owner) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            IndexedBoard indexed = boards.get(boardId);
+            if (indexed != null) {
+                indexed.owner = owner;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // owner == null busca en los tableros de todos los usuarios
+    public List<CardSearchHit> search(String query, String owner, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<IndexedCard, Double> scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                Map<IndexedCard, Double> termScores = score(terms.get(i), i == terms.size() - 1, owner);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    // Todos los términos tienen que aparecer
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<IndexedCard, Double> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<IndexedCard, Double>comparingByValue().reversed()
+                            .thenComparing(entry -> String.valueOf(entry.getKey().card.getTitle())))
+                    .limit(limit)
+                    .map(entry -> entry.getKey().hit(entry.getValue()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Cards asignadas al usuario, a partir de la clave startAfter (exclusiva).
+    // nextPageToken es la clave de la última card, o null si no hay más.
+    public Page<AssignedCard> assignedCards(String userId, int pageSize, String startAfter) {
+        lock.readLock().lock();
+        try {
+            NavigableMap<String, IndexedCard> cards = assigned.getOrDefault(userId, Collections.emptyNavigableMap());
+            if (startAfter != null) {
+                cards = cards.tailMap(startAfter, false);
+            }
+            List<AssignedCard> items = new ArrayList<>(Math.min(pageSize, cards.size()));
+            String last = null;
+            for (Map.Entry<String, IndexedCard> entry : cards.entrySet()) {
+                if (items.size() == pageSize) {
+                    return new Page<>(items, last);
+                }
+                items.add(entry.getValue().assigned());
+                last = entry.getKey();
+            }
+            return new Page<>(items, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SearchStats stats() {
+        lock.readLock().lock();
+        try {
+            return new SearchStats(enabled, ready, boards.size(), cardCount, postings.size(), assigned.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ready: terminó la carga inicial (antes de eso faltan resultados de tableros no leídos todavía)
+    public record SearchStats(boolean enabled, boolean ready, int boards, int cards, int terms, int assignees) {
+    }
+
+    // --- Métodos privados ---
+    private void buildFrom(String startAfter) {
+        findPage(startAfter).whenComplete((page, error) -> {
+            if (error != null) {
+                log.warn("No se pudo armar el índice de búsqueda; se mantiene con las escrituras", error);
+                finishBuild();
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                for (Board board : page.getItems()) {
+                    // Lo escrito mientras tanto es más nuevo que esta lectura
+                    if (!boards.containsKey(board.getId()) && !deletedWhileBuilding.contains(board.getId())) {
+                        update(board);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (page.getNextPageToken() != null) {
+                buildFrom(page.getNextPageToken());
+            } else {
+                finishBuild();
+                log.info("Índice de búsqueda listo: {}", stats());
+            }
+        });
+    }
+
+    // El repositorio puede fallar antes de devolver el future (sin credenciales de Firestore,
+    // admisión rechazada): eso no debe cortar el arranque, se trata como una lectura fallida
+    private CompletableFuture<Page<Board>> findPage(String startAfter) {
+        try {
+            return boardRepository.findPage(null, BUILD_PAGE_SIZE, startAfter);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void finishBuild() {
+        lock.writeLock().lock();
+        try {
+            ready = true;
+            deletedWhileBuilding.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Con el write lock tomado
+    private void update(Board board) {
+        IndexedBoard indexed = boards.computeIfAbsent(board.getId(), IndexedBoard::new);
+        indexed.name = board.getName();
+        indexed.owner = board.getOwner();
+
+        Map<String, IndexedCard> previous = indexed.cards;
+        Map<String, IndexedCard> current = new HashMap<>();
+        for (com.trello.app_trello.BuissnessLogic.List list : BoardItems.lists(board)) {
+            for (Card card : BoardItems.cards(list)) {
+                if (card.getId() == null) {
+                    continue; // tablero anterior a los IDs estables: se indexa cuando los reciba
+                }
+                if (current.containsKey(card.getId())) {
+                    continue; // ID repetido (datos viejos): vale la primera, otra entrada no se podría quitar
+                }
+                IndexedCard old = previous.remove(card.getId());
+                if (old != null && old.matches(list, card)) {
+                    current.put(card.getId(), old);
+                    continue;
+                }
+                if (old != null) {
+                    unindex(old);
+                }
+                IndexedCard added = new IndexedCard(indexed, list, card);
+                current.put(card.getId(), added);
+                added.weights.forEach((term, weight) ->
+                        postings.computeIfAbsent(term, t -> new HashMap<>()).put(added, weight));
+                for (String user : added.users()) {
+                    assigned.computeIfAbsent(user, u -> new TreeMap<>()).put(added.key(), added);
+                }
+                cardCount++;
+            }
+        }
+        // Las que quedaron ya no están en el tablero
+        previous.values().forEach(this::unindex);
+        indexed.cards = current;
+    }
+
+    private void unindex(IndexedCard card) {
+        for (String term : card.weights.keySet()) {
+            Map<IndexedCard, Integer> cards = postings.get(term);
+            if (cards != null) {
+                cards.remove(card);
+                if (cards.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        for (String user : card.users()) {
+            NavigableMap<String, IndexedCard> cards = assigned.get(user);
+            if (cards != null) {
+                cards.remove(card.key());
+                if (cards.isEmpty()) {
+                    assigned.remove(user);
+                }
+            }
+        }
+        cardCount--;
+    }
+
+    // Puntaje de cada card para un término (o para los términos que empiezan con él)
+    private Map<IndexedCard, Double> score(String term, boolean prefix, String owner) {
+        Map<IndexedCard, Double> scores = new HashMap<>();
+        Collection<Map.Entry<String, Map<IndexedCard, Integer>>> matches;
+        if (prefix) {
+            matches = postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet();
+        } else {
+            Map<IndexedCard, Integer> exact = postings.get(term);
+            matches = exact == null ? List.of() : List.of(Map.entry(term, exact));
+        }
+        int expanded = 0;
+        for (Map.Entry<String, Map<IndexedCard, Integer>> match : matches) {
+            if (expanded++ == MAX_PREFIX_TERMS) {
+                break;
+            }
+            // Un prefijo vale un poco menos que la palabra completa
+            double boost = match.getKey().equals(term) ? 1.0 : 0.8;
+            double idf = Math.log(1 + (double) cardCount / match.getValue().size());
+            match.getValue().forEach((card, weight) -> {
+                if (owner == null || owner.equals(card.board.owner)) {
+                    scores.merge(card, weight * idf * boost, Math::max);
+                }
+            });
+        }
+        return scores;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static void addTerms(Map<String, Integer> weights, String text, int weight) {
+        for (String token : tokenize(text)) {
+            weights.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private static final class IndexedBoard {
+        private final String id;
+        private String name;
+        private String owner;
+        private Map<String, IndexedCard> cards = new HashMap<>();
+
+        private IndexedBoard(String id) {
+            this.id = id;
+        }
+    }
+
+    // Copia de lo indexado de la card; la igualdad es por identidad
+    private static final class IndexedCard {
+        private final IndexedBoard board;
+        private final String listId;
+        private final String listTitle;
+        private final Card card;
+        private final Map<String, Integer> weights = new HashMap<>();
+
+        private IndexedCard(IndexedBoard board, com.trello.app_trello.BuissnessLogic.List list, Card source) {
+            this.board = board;
+            this.listId = list.getId();
+            this.listTitle = list.getTitle();
+            this.card = new Card();
+            card.setId(source.getId());
+            card.setTitle(source.getTitle());
+            card.setDescription(source.getDescription());
+            card.setAssignedUsers(source.getAssignedUsers() != null ?
+                    new ArrayList<>(source.getAssignedUsers()) : new ArrayList<>());
+            card.setPosition(source.getPosition());
+
+            addTerms(weights, card.getTitle(), TITLE_WEIGHT);
+            addTerms(weights, card.getDescription(), DESCRIPTION_WEIGHT);
+            for (String user : card.getAssignedUsers()) {
+                addTerms(weights, user, ASSIGNEE_WEIGHT);
+            }
+        }
+
+        private boolean matches(com.trello.app_trello.BuissnessLogic.List list, Card other) {
+            return Objects.equals(listId, list.getId())
+                    && Objects.equals(listTitle, list.getTitle())
+                    && Objects.equals(card.getTitle(), other.getTitle())
+                    && Objects.equals(card.getDescription(), other.getDescription())
+                    && Objects.equals(card.getAssignedUsers(), other.getAssignedUsers() != null ?
+                    other.getAssignedUsers() : List.of())
+                    && Objects.equals(card.getPosition(), other.getPosition());
+        }
+
+        private CardSearchHit hit(double score) {
+            return new CardSearchHit(board.id, board.name, listId, listTitle, card, score);
+        }
+
+        private AssignedCard assigned() {
+            return new AssignedCard(board.id, board.name, listId, listTitle, card);
+        }
+
+        private String key() {
+            return board.id + "/" + card.getId();
+        }
+
+        // Sin repetidos ni nulos
+        private Set<String> users() {
+            Set<String> users = new LinkedHashSet<>(card.getAssignedUsers());
+            users.remove(null);
+            return users;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.trello.app_trello.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+// Utilidades para las variantes sincrónicas de los servicios asíncronos
+public final class Futures {
+
+    private Futures() {
+    }
+
+    // Espera el resultado y relanza la excepción original (normalmente ResponseStatusException)
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            throw propagate(e);
+        }
+    }
+
+    // Quita los envoltorios CompletionException/ExecutionException
+    public static Throwable unwrap(Throwable throwable) {
+        Throwable current = throwable;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+                && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+
+    public static RuntimeException propagate(Throwable throwable) {
+        Throwable cause = unwrap(throwable);
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new ResponseStatusException(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                "Error al procesar la solicitud",
+                cause
+        );
+    }
+}
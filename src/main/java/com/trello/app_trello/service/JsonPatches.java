@@ -0,0 +1,190 @@
+package com.trello.app_trello.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+// Aplicación de JSON Merge Patch (RFC 7386) y JSON Patch (RFC 6902) sobre un árbol de Jackson.
+// Un patch mal formado o que apunta a algo inexistente es 400; un "test" que no se cumple, 409.
+public final class JsonPatches {
+
+    private JsonPatches() {
+    }
+
+    // Devuelve el documento resultante; "target" no se modifica
+    public static JsonNode mergePatch(JsonNode target, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch.deepCopy();
+        }
+        ObjectNode result = target != null && target.isObject() ? target.deepCopy() : ((ObjectNode) patch).objectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getValue().isNull()) {
+                result.remove(field.getKey());
+            } else {
+                result.set(field.getKey(), mergePatch(result.get(field.getKey()), field.getValue()));
+            }
+        }
+        return result;
+    }
+
+    // Aplica las operaciones en orden; si una falla no se aplica ninguna (se trabaja sobre una copia)
+    public static JsonNode jsonPatch(JsonNode target, JsonNode operations) {
+        if (!operations.isArray()) {
+            throw badRequest("Un JSON Patch debe ser un array de operaciones");
+        }
+        JsonNode document = target.deepCopy();
+        for (JsonNode operation : operations) {
+            document = apply(document, operation);
+        }
+        return document;
+    }
+
+    // --- Métodos privados ---
+    private static JsonNode apply(JsonNode document, JsonNode operation) {
+        String op = text(operation, "op");
+        List<String> path = parsePointer(text(operation, "path"));
+        switch (op) {
+            case "add":
+                return add(document, path, value(operation));
+            case "remove":
+                remove(document, path);
+                return document;
+            case "replace":
+                get(document, path);
+                if (path.isEmpty()) {
+                    return value(operation);
+                }
+                remove(document, path);
+                return add(document, path, value(operation));
+            case "move": {
+                List<String> from = parsePointer(text(operation, "from"));
+                if (path.size() > from.size() && path.subList(0, from.size()).equals(from)) {
+                    throw badRequest("No se puede mover un elemento dentro de sí mismo");
+                }
+                JsonNode moved = get(document, from);
+                remove(document, from);
+                return add(document, path, moved);
+            }
+            case "copy":
+                return add(document, path, get(document, parsePointer(text(operation, "from"))).deepCopy());
+            case "test":
+                if (!get(document, path).equals(value(operation))) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                            "No se cumple la condición test en " + text(operation, "path"));
+                }
+                return document;
+            default:
+                throw badRequest("Operación de patch no soportada: " + op);
+        }
+    }
+
+    private static JsonNode add(JsonNode document, List<String> path, JsonNode value) {
+        if (path.isEmpty()) {
+            return value;
+        }
+        JsonNode parent = get(document, path.subList(0, path.size() - 1));
+        String last = path.get(path.size() - 1);
+        if (parent instanceof ObjectNode object) {
+            object.set(last, value);
+        } else if (parent instanceof ArrayNode array) {
+            if ("-".equals(last)) {
+                array.add(value);
+            } else {
+                int index = index(last, array.size());
+                array.insert(index, value);
+            }
+        } else {
+            throw badRequest("La ruta del patch no apunta a un objeto ni a un array");
+        }
+        return document;
+    }
+
+    private static void remove(JsonNode document, List<String> path) {
+        if (path.isEmpty()) {
+            throw badRequest("No se puede eliminar el documento completo");
+        }
+        JsonNode parent = get(document, path.subList(0, path.size() - 1));
+        String last = path.get(path.size() - 1);
+        if (parent instanceof ObjectNode object && object.has(last)) {
+            object.remove(last);
+        } else if (parent instanceof ArrayNode array) {
+            array.remove(index(last, array.size() - 1));
+        } else {
+            throw badRequest("La ruta del patch no existe");
+        }
+    }
+
+    private static JsonNode get(JsonNode document, List<String> path) {
+        JsonNode node = document;
+        for (String token : path) {
+            if (node.isObject() && node.has(token)) {
+                node = node.get(token);
+            } else if (node.isArray()) {
+                node = node.get(index(token, node.size() - 1));
+            } else {
+                throw badRequest("La ruta del patch no existe");
+            }
+        }
+        return node;
+    }
+
+    // Índice de array entre 0 y max (inclusive)
+    private static int index(String token, int max) {
+        if (!token.matches("0|[1-9][0-9]*")) {
+            throw badRequest("Índice de array inválido: " + token);
+        }
+        int index;
+        try {
+            index = Integer.parseInt(token);
+        } catch (NumberFormatException e) {
+            throw badRequest("Índice de array inválido: " + token);
+        }
+        if (index > max) {
+            throw badRequest("Índice de array fuera de rango: " + token);
+        }
+        return index;
+    }
+
+    // JSON Pointer (RFC 6901): "" es el documento, "/a/0" es a[0]; ~1 es "/" y ~0 es "~"
+    private static List<String> parsePointer(String pointer) {
+        List<String> tokens = new ArrayList<>();
+        if (pointer.isEmpty()) {
+            return tokens;
+        }
+        if (!pointer.startsWith("/")) {
+            throw badRequest("Ruta de patch inválida: " + pointer);
+        }
+        for (String token : pointer.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+
+    private static String text(JsonNode operation, String field) {
+        JsonNode value = operation.get(field);
+        if (value == null || !value.isTextual()) {
+            throw badRequest("Falta el campo \"" + field + "\" en la operación de patch");
+        }
+        return value.asText();
+    }
+
+    private static JsonNode value(JsonNode operation) {
+        if (!operation.has("value")) {
+            throw badRequest("Falta el campo \"value\" en la operación de patch");
+        }
+        return operation.get("value").deepCopy();
+    }
+
+    private static ResponseStatusException badRequest(String message) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+    }
+}
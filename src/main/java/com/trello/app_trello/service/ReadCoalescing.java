@@ -0,0 +1,162 @@
+package com.trello.app_trello.service;
+
+import com.trello.app_trello.BuissnessLogic.Board;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+// Single-flight de lecturas: pedidos simultáneos del mismo tablero (o de los tableros del mismo
+// dueño) comparten una sola lectura al almacenamiento en curso. Solo se comparte una lectura
+// si esa clave no se invalidó en BoardCache después de que empezó: si no, se lanza otra, para
+// no devolver algo anterior a una escritura ya confirmada. En la lista de un dueño también
+// cuentan sus tableros, que recién se conocen al terminar: si alguno se invalidó durante la
+// lectura, los que se sumaron la repiten por su cuenta.
+// El resultado es el mismo objeto para todos, como con BoardCache: no debe modificarse.
+@Component
+public class ReadCoalescing {
+
+    @Value("${board.coalescing.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BoardCache boardCache;
+
+    private SingleFlight<Optional<Board>> boards;
+    private SingleFlight<List<Board>> owners;
+
+    @PostConstruct
+    public void init() {
+        boards = new SingleFlight<>(counter("board", "started"), counter("board", "coalesced"),
+                counter("board", "reread"), boardCache::unchangedSince,
+                (id, board, generation) -> boardCache.unchangedSince(id, generation));
+        owners = new SingleFlight<>(counter("owner", "started"), counter("owner", "coalesced"),
+                counter("owner", "reread"), boardCache::ownerUnchangedSince,
+                (owner, ownerBoards, generation) -> ownerBoards.stream()
+                        .allMatch(board -> boardCache.unchangedSince(board.getId(), generation)));
+    }
+
+    public CompletableFuture<Optional<Board>> board(String id, long generation,
+                                                    Supplier<CompletableFuture<Optional<Board>>> read) {
+        return enabled ? boards.run(id, generation, read) : read.get();
+    }
+
+    public CompletableFuture<List<Board>> owner(String owner, long generation,
+                                                Supplier<CompletableFuture<List<Board>>> read) {
+        return enabled ? owners.run(owner, generation, read) : read.get();
+    }
+
+    public CoalescingStats stats() {
+        return new CoalescingStats(enabled, boards.started(), boards.coalesced(), boards.reread(),
+                boards.inFlight(), owners.started(), owners.coalesced(), owners.reread(), owners.inFlight());
+    }
+
+    // started: lecturas lanzadas; coalesced: pedidos que se sumaron a una ya en curso;
+    // reread: de esos, los que tuvieron que repetir la lectura porque el resultado ya era viejo
+    public record CoalescingStats(boolean enabled, long boardReads, long boardCoalesced, long boardRereads,
+                                  int boardInFlight, long ownerReads, long ownerCoalesced, long ownerRereads,
+                                  int ownerInFlight) {
+    }
+
+    // --- Métodos privados ---
+    private Counter counter(String read, String outcome) {
+        return Counter.builder("board.reads")
+                .description("Lecturas al almacenamiento lanzadas y pedidos resueltos con una ya en curso")
+                .tag("read", read)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class SingleFlight<V> {
+        private final Map<String, Flight<V>> inFlight = new ConcurrentHashMap<>();
+        private final Counter started;
+        private final Counter coalesced;
+        private final Counter reread;
+        // ¿Se puede sumar a una lectura de esa clave que empezó en esa generación?
+        private final BiPredicate<String, Long> joinable;
+        // ¿El resultado sigue valiendo para los que se sumaron?
+        private final Freshness<V> fresh;
+
+        private SingleFlight(Counter started, Counter coalesced, Counter reread,
+                             BiPredicate<String, Long> joinable, Freshness<V> fresh) {
+            this.started = started;
+            this.coalesced = coalesced;
+            this.reread = reread;
+            this.joinable = joinable;
+            this.fresh = fresh;
+        }
+
+        // Cada llamador recibe su propia copia: cancelar la suya no cancela la de los demás
+        private CompletableFuture<V> run(String key, long generation, Supplier<CompletableFuture<V>> read) {
+            Flight<V> flight = new Flight<>(new CompletableFuture<>(), generation);
+            Flight<V> current = inFlight.compute(key, (k, existing) ->
+                    existing != null && joinable.test(k, existing.generation()) ? existing : flight);
+            if (current != flight) {
+                coalesced.increment();
+                // La relectura no pasa por acá, así no puede encadenarse indefinidamente
+                return current.result().thenCompose(value -> {
+                    if (fresh.test(key, value, current.generation())) {
+                        return CompletableFuture.completedFuture(value);
+                    }
+                    reread.increment();
+                    return read.get();
+                });
+            }
+
+            started.increment();
+            CompletableFuture<V> source;
+            try {
+                source = read.get();
+            } catch (RuntimeException e) {
+                source = CompletableFuture.failedFuture(e);
+            }
+            source.whenComplete((value, error) -> {
+                inFlight.remove(key, flight);
+                if (error != null) {
+                    flight.result().completeExceptionally(error);
+                } else {
+                    flight.result().complete(value);
+                }
+            });
+            return flight.result().copy();
+        }
+
+        private long started() {
+            return (long) started.count();
+        }
+
+        private long coalesced() {
+            return (long) coalesced.count();
+        }
+
+        private long reread() {
+            return (long) reread.count();
+        }
+
+        private int inFlight() {
+            return inFlight.size();
+        }
+    }
+
+    private record Flight<V>(CompletableFuture<V> result, long generation) {
+    }
+
+    // Recibe la clave además del resultado: un tablero que no existe no trae su ID
+    @FunctionalInterface
+    private interface Freshness<V> {
+        boolean test(String key, V value, long generation);
+    }
+}
@@ -0,0 +1,417 @@
+package com.trello.app_trello.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.repository.BoardMutation;
+import com.trello.app_trello.repository.BoardRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Modo write-behind (opcional) para tableros muy concurridos: cada mutación se aplica al
+// instante sobre una copia en memoria del tablero y responde con ese resultado; cada
+// flush-interval-ms las mutaciones acumuladas de un tablero se escriben juntas con un solo
+// mutate() del repositorio (una escritura por tablero en vez de una por mutación).
+// Al escribir se vuelven a aplicar sobre la última versión guardada, así que conviven con
+// escrituras de otras instancias. La cola total está acotada: si se llena se responde 503.
+@Component
+public class WriteBehindBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindBuffer.class);
+
+    @Value("${board.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${board.write-behind.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${board.write-behind.max-pending:10000}")
+    private int maxPending;
+
+    // Un tablero sin mutaciones durante este tiempo deja de tener copia en memoria
+    @Value("${board.write-behind.idle-eviction-seconds:60}")
+    private long idleEvictionSeconds;
+
+    @Value("${board.write-behind.shutdown-timeout-seconds:30}")
+    private long shutdownTimeoutSeconds;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<String, CompletableFuture<Buffer>> buffers = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder flushedMutations = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+    private final LongAdder replayFailures = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+
+    private ScheduledExecutorService flushScheduler;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "board-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushScheduler.scheduleWithFixedDelay(this::flushAll, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Al apagar se escribe todo lo pendiente antes de que se cierre el repositorio
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        flushScheduler.shutdown();
+        try {
+            flushScheduler.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(shutdownTimeoutSeconds);
+            while (pending.get() > 0 && System.nanoTime() - deadline < 0) {
+                List<CompletableFuture<Void>> flushing = new ArrayList<>();
+                buffers.forEach((id, buffer) -> {
+                    Buffer loaded = loaded(buffer);
+                    if (loaded != null) {
+                        flushing.add(flush(id, loaded));
+                    }
+                });
+                CompletableFuture.allOf(flushing.toArray(CompletableFuture[]::new))
+                        .get(Math.max(1, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (pending.get() > 0) {
+                    // Escrituras fallidas o todavía en curso: se espera un intervalo antes de reintentar
+                    Thread.sleep(flushIntervalMs);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Se informa abajo
+        }
+        if (pending.get() > 0) {
+            log.error("Se apagó con {} mutaciones de tableros sin escribir", pending.get());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Aplica la mutación a la copia en memoria (cargándola si hace falta) y la encola para escribir.
+    // Devuelve el tablero como quedó, o vacío si no existe. Una ResponseStatusException de la
+    // mutación se propaga sin encolar nada.
+    public CompletableFuture<Optional<Board>> submit(String boardId, BoardMutation mutation) {
+        return buffer(boardId).thenCompose(buffer -> {
+            if (buffer == null) {
+                return CompletableFuture.completedFuture(Optional.<Board>empty());
+            }
+            Optional<Board> result = buffer.apply(mutation);
+            if (result == null) {
+                // La copia se descartó mientras tanto: se vuelve a cargar
+                return submit(boardId, mutation);
+            }
+            return CompletableFuture.completedFuture(result);
+        });
+    }
+
+    // Copia en memoria del tablero si tiene una (incluye mutaciones todavía no escritas)
+    public Optional<Board> get(String boardId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Buffer buffer = loaded(buffers.get(boardId));
+        return buffer != null ? Optional.ofNullable(buffer.snapshot()) : Optional.empty();
+    }
+
+    // Escribe ya lo pendiente del tablero (antes de un reemplazo completo, una migración, etc.).
+    // Si hay una escritura del tablero en curso la espera, y después escribe lo que quede.
+    public CompletableFuture<Void> flush(String boardId) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Buffer> buffer = buffers.get(boardId);
+        if (buffer == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return buffer.thenCompose(loaded -> loaded != null
+                ? flush(boardId, loaded)
+                : CompletableFuture.<Void>completedFuture(null));
+    }
+
+    // Olvida la copia y lo pendiente (el tablero se va a eliminar)
+    public void discard(String boardId) {
+        if (!enabled) {
+            return;
+        }
+        Buffer buffer = loaded(buffers.remove(boardId));
+        if (buffer != null) {
+            pending.addAndGet(-buffer.close());
+        }
+    }
+
+    public WriteBehindStats stats() {
+        long flushCount = flushes.sum();
+        return new WriteBehindStats(
+                enabled,
+                accepted.sum(),
+                rejected.sum(),
+                pending.get(),
+                buffers.size(),
+                flushCount,
+                flushFailures.sum(),
+                replayFailures.sum(),
+                flushCount == 0 ? 0 : (double) flushedMutations.sum() / flushCount,
+                flushCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(flushNanos.sum() / flushCount) / 1000.0,
+                TimeUnit.NANOSECONDS.toMicros(maxFlushNanos.get()) / 1000.0
+        );
+    }
+
+    // coalescingRatio: mutaciones escritas por cada escritura real al almacenamiento
+    public record WriteBehindStats(boolean enabled, long accepted, long rejected, int pending, int boards,
+                                   long flushes, long flushFailures, long replayFailures,
+                                   double coalescingRatio, double avgFlushMillis, double maxFlushMillis) {
+    }
+
+    // --- Métodos privados ---
+    private CompletableFuture<Buffer> buffer(String boardId) {
+        CompletableFuture<Buffer> buffer = buffers.computeIfAbsent(boardId, id -> boardRepository.findById(id)
+                .thenApply(board -> board.map(Buffer::new).orElse(null)));
+        // Un tablero inexistente o una lectura fallida no quedan guardados
+        buffer.whenComplete((loaded, error) -> {
+            if (error != null || loaded == null) {
+                buffers.remove(boardId, buffer);
+            }
+        });
+        return buffer;
+    }
+
+    // La copia ya cargada, o null si todavía se está leyendo o el tablero no existe
+    private Buffer loaded(CompletableFuture<Buffer> buffer) {
+        if (buffer == null || !buffer.isDone() || buffer.isCompletedExceptionally()) {
+            return null;
+        }
+        return buffer.join();
+    }
+
+    private void flushAll() {
+        long now = System.nanoTime();
+        buffers.forEach((id, buffer) -> {
+            Buffer loaded = loaded(buffer);
+            if (loaded == null) {
+                return;
+            }
+            if (loaded.isIdle(now, TimeUnit.SECONDS.toNanos(idleEvictionSeconds))) {
+                buffers.remove(id, buffer);
+            } else {
+                // Si ya hay una escritura en curso, lo nuevo espera al próximo intervalo
+                flush(id, loaded, false);
+            }
+        });
+    }
+
+    private CompletableFuture<Void> flush(String boardId, Buffer buffer) {
+        return flush(boardId, buffer, true);
+    }
+
+    // Escribe lo pendiente. Si ya hay una escritura del tablero en curso, con waitInFlight la
+    // espera y después escribe lo que haya quedado; si no, no hace nada.
+    // El resultado se completa (sin error) cuando la escritura termina, haya salido bien o no.
+    private CompletableFuture<Void> flush(String boardId, Buffer buffer, boolean waitInFlight) {
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+        Drain drain = buffer.drain(completion);
+        if (drain.inFlight() != null) {
+            return waitInFlight
+                    ? drain.inFlight().thenCompose(previous -> flush(boardId, buffer, true))
+                    : CompletableFuture.completedFuture(null);
+        }
+        List<BoardMutation> batch = drain.batch();
+        if (batch.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<Optional<Board>> write;
+        try {
+            write = boardRepository.mutate(boardId, board -> replay(boardId, board, batch));
+        } catch (RuntimeException e) {
+            write = CompletableFuture.failedFuture(e);
+        }
+        write.handle((stored, error) -> {
+                    if (error != null) {
+                        // Se reintenta en el próximo intervalo
+                        log.warn("No se pudieron escribir {} mutaciones del tablero {}", batch.size(), boardId, error);
+                        flushFailures.increment();
+                        pending.addAndGet(-buffer.requeue(batch));
+                        return null;
+                    }
+                    long elapsed = System.nanoTime() - start;
+                    flushes.increment();
+                    flushedMutations.add(batch.size());
+                    flushNanos.add(elapsed);
+                    maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+                    pending.addAndGet(-batch.size());
+                    if (stored.isEmpty()) {
+                        // El tablero se eliminó en otro lado
+                        discard(boardId);
+                    } else {
+                        buffer.flushed(stored.get());
+                    }
+                    return null;
+                })
+                .whenComplete((done, error) -> completion.complete(null));
+        return completion;
+    }
+
+    // Reaplica las mutaciones sobre la versión guardada. Cada una se aplica sobre una copia: la
+    // que falla (ya no aplica, o es inválida) se descarta sin dejar el tablero a medio modificar
+    // ni trabar el resto, que si no se reencolaría en cada intervalo para siempre.
+    // Ya se respondió 2xx por ella, así que queda registrada con el ID del tablero.
+    private boolean replay(String boardId, Board board, List<BoardMutation> batch) {
+        boolean changed = false;
+        for (BoardMutation mutation : batch) {
+            Board next = copy(board);
+            try {
+                if (!mutation.apply(next)) {
+                    continue;
+                }
+            } catch (ResponseStatusException e) {
+                replayFailures.increment();
+                log.warn("Se descartó una mutación ya confirmada del tablero {}: {}", boardId, e.getReason());
+                continue;
+            } catch (RuntimeException e) {
+                replayFailures.increment();
+                log.error("Se descartó una mutación ya confirmada del tablero {}", boardId, e);
+                continue;
+            }
+            board.setName(next.getName());
+            board.setOwner(next.getOwner());
+            board.setLists(next.getLists());
+            changed = true;
+        }
+        return changed;
+    }
+
+    private Board copy(Board board) {
+        return objectMapper.convertValue(board, Board.class);
+    }
+
+    private record Drain(List<BoardMutation> batch, CompletableFuture<Void> inFlight) {
+    }
+
+    // Copia autoritativa de un tablero y las mutaciones aplicadas que faltan escribir
+    private final class Buffer {
+        private Board board;
+        private List<BoardMutation> queued = new ArrayList<>();
+        // Escritura en curso (se completa al terminar), o null
+        private CompletableFuture<Void> flushing;
+        private boolean closed;
+        private long lastActivity = System.nanoTime();
+
+        private Buffer(Board board) {
+            this.board = board;
+        }
+
+        // null si la copia ya fue descartada
+        synchronized Optional<Board> apply(BoardMutation mutation) {
+            if (closed) {
+                return null;
+            }
+            lastActivity = System.nanoTime();
+            // Sobre una copia: si la mutación falla a mitad de camino, el tablero queda intacto
+            Board next = copy(board);
+            if (!mutation.apply(next)) {
+                return Optional.of(next);
+            }
+            if (pending.incrementAndGet() > maxPending) {
+                pending.decrementAndGet();
+                rejected.increment();
+                throw new ResponseStatusException(
+                        HttpStatus.SERVICE_UNAVAILABLE,
+                        "Demasiadas escrituras pendientes, intentá de nuevo"
+                );
+            }
+            accepted.increment();
+            board = next;
+            queued.add(mutation);
+            return Optional.of(copy(next));
+        }
+
+        synchronized Board snapshot() {
+            return closed ? null : copy(board);
+        }
+
+        // Toma lo pendiente para escribirlo; nunca dos escrituras del mismo tablero a la vez:
+        // si hay una en curso devuelve esa para esperarla. "completion" marca la nueva escritura.
+        synchronized Drain drain(CompletableFuture<Void> completion) {
+            if (flushing != null) {
+                return new Drain(List.of(), flushing);
+            }
+            if (queued.isEmpty()) {
+                return new Drain(List.of(), null);
+            }
+            flushing = completion;
+            List<BoardMutation> batch = queued;
+            queued = new ArrayList<>();
+            return new Drain(batch, null);
+        }
+
+        // Devuelve cuántas se descartaron porque la copia ya no existe
+        synchronized int requeue(List<BoardMutation> batch) {
+            flushing = null;
+            if (closed) {
+                return batch.size();
+            }
+            queued.addAll(0, batch);
+            return 0;
+        }
+
+        // Si no llegó nada nuevo durante la escritura, la versión guardada pasa a ser la copia
+        synchronized void flushed(Board stored) {
+            flushing = null;
+            if (queued.isEmpty()) {
+                board = stored;
+            }
+        }
+
+        synchronized boolean isIdle(long now, long idleNanos) {
+            if (flushing != null || !queued.isEmpty() || now - lastActivity < idleNanos) {
+                return false;
+            }
+            closed = true;
+            return true;
+        }
+
+        // Devuelve cuántas mutaciones pendientes se descartaron
+        synchronized int close() {
+            closed = true;
+            int dropped = queued.size();
+            queued = new ArrayList<>();
+            return dropped;
+        }
+    }
+}
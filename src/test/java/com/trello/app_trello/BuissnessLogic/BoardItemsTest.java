@@ -0,0 +1,156 @@
+package com.trello.app_trello.BuissnessLogic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardItemsTest {
+
+    @Test
+    void assignsMissingIdsAndPositionsInArrayOrder() {
+        Board board = board(list(null, null, card(null, null), card(null, null)), list(null, null));
+
+        assertTrue(BoardItems.ensureIds(board));
+
+        String previous = null;
+        for (List list : board.getLists()) {
+            assertNotNull(list.getId());
+            assertInOrder(previous, list.getPosition());
+            previous = list.getPosition();
+        }
+        ArrayList<Card> cards = board.getLists().get(0).getCards();
+        assertNotNull(cards.get(0).getId());
+        assertInOrder(null, cards.get(0).getPosition());
+        assertInOrder(cards.get(0).getPosition(), cards.get(1).getPosition());
+        // Una segunda pasada no encuentra nada que arreglar
+        assertFalse(BoardItems.ensureIds(board));
+    }
+
+    @Test
+    void replacesInvalidAndOutOfOrderKeysKeepingValidOnes() {
+        Card first = card("c1", "V");
+        Card outOfOrder = card("c2", "A");
+        Card invalid = card("c3", "A-B");
+        Card trailingZero = card("c4", "X0");
+        Board board = board(list("l1", "V", first, outOfOrder, invalid, trailingZero), list("l2", "V"));
+
+        assertTrue(BoardItems.ensureIds(board));
+
+        assertEquals("V", first.getPosition());
+        assertInOrder(first.getPosition(), outOfOrder.getPosition());
+        assertInOrder(outOfOrder.getPosition(), invalid.getPosition());
+        assertInOrder(invalid.getPosition(), trailingZero.getPosition());
+        assertEquals("V", board.getLists().get(0).getPosition());
+        assertInOrder("V", board.getLists().get(1).getPosition());
+        assertEquals("c1", first.getId());
+    }
+
+    @Test
+    void replacesRepeatedIdsKeepingTheFirst() {
+        Card original = card("c1", "V");
+        Card copied = card("c1", "W");
+        Card copiedToOtherList = card("c1", "V");
+        List first = list("l1", "V", original, copied);
+        List repeated = list("l1", "W", copiedToOtherList);
+        Board board = board(first, repeated);
+
+        assertTrue(BoardItems.ensureIds(board));
+
+        assertEquals("l1", first.getId());
+        assertNotNull(repeated.getId());
+        assertNotEquals("l1", repeated.getId());
+        assertEquals("c1", original.getId());
+        assertNotEquals("c1", copied.getId());
+        assertNotEquals("c1", copiedToOtherList.getId());
+        assertNotEquals(copiedToOtherList.getId(), copied.getId());
+        // Las claves de orden válidas no se tocan
+        assertEquals("W", copied.getPosition());
+        assertFalse(BoardItems.ensureIds(board));
+    }
+
+    @Test
+    void findsListsByTitleAfterRenameAndRemove() {
+        List todo = list("l1", "V");
+        todo.setTitle("Todo");
+        List done = list("l2", "W");
+        done.setTitle("Done");
+        Board board = board(todo, done);
+        assertSame(done, BoardItems.findList(board, "Done").orElseThrow());
+
+        BoardItems.renameList(board, todo, "Backlog");
+        assertTrue(BoardItems.findList(board, "Todo").isEmpty());
+        assertSame(todo, BoardItems.findList(board, "Backlog").orElseThrow());
+
+        assertTrue(BoardItems.removeLists(board, list -> list == todo));
+        assertTrue(BoardItems.findList(board, "Backlog").isEmpty());
+        // La lista que queda cambió de posición en el array
+        assertSame(done, BoardItems.findList(board, "Done").orElseThrow());
+    }
+
+    @Test
+    void rebuildsTheIndexWhenListsChangeBehindItsBack() {
+        List todo = list("l1", "V");
+        todo.setTitle("Todo");
+        Board board = board(todo);
+        assertSame(todo, BoardItems.findList(board, "Todo").orElseThrow());
+
+        // Buscar el título viejo de una lista renombrada sin renameList detecta el cambio
+        todo.setTitle("Doing");
+        assertTrue(BoardItems.findList(board, "Todo").isEmpty());
+        assertSame(todo, BoardItems.findList(board, "Doing").orElseThrow());
+
+        // Ni una lista agregada directamente en el array queda afuera
+        List done = list("l2", "W");
+        done.setTitle("Done");
+        board.getLists().add(done);
+        assertSame(done, BoardItems.findList(board, "Done").orElseThrow());
+    }
+
+    @Test
+    void returnsTheFirstListWhenTitlesRepeat() {
+        List first = list("l1", "V");
+        first.setTitle("Todo");
+        List second = list("l2", "W");
+        second.setTitle("Todo");
+        Board board = board(first, second);
+
+        assertSame(first, BoardItems.findList(board, "Todo").orElseThrow());
+        BoardItems.removeLists(board, list -> list == first);
+        assertSame(second, BoardItems.findList(board, "Todo").orElseThrow());
+    }
+
+    private static void assertInOrder(String previous, String position) {
+        assertTrue(OrderKeys.isValid(position), "clave inválida " + position);
+        assertTrue(previous == null || previous.compareTo(position) < 0, position + " no es mayor que " + previous);
+    }
+
+    private static Board board(List... lists) {
+        Board board = new Board();
+        board.setId("b1");
+        board.setLists(new ArrayList<>(java.util.List.of(lists)));
+        return board;
+    }
+
+    private static List list(String id, String position, Card... cards) {
+        List list = new List();
+        list.setId(id);
+        list.setTitle(id);
+        list.setPosition(position);
+        list.setCards(new ArrayList<>(java.util.List.of(cards)));
+        return list;
+    }
+
+    private static Card card(String id, String position) {
+        Card card = new Card();
+        card.setId(id);
+        card.setPosition(position);
+        return card;
+    }
+}
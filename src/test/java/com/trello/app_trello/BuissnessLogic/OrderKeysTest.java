@@ -0,0 +1,88 @@
+package com.trello.app_trello.BuissnessLogic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderKeysTest {
+
+    @Test
+    void rejectsEmptyKeysInvalidCharactersAndTrailingMinimumDigit() {
+        assertFalse(OrderKeys.isValid(null));
+        assertFalse(OrderKeys.isValid(""));
+        assertFalse(OrderKeys.isValid("0"));
+        assertFalse(OrderKeys.isValid("A0"));
+        assertFalse(OrderKeys.isValid("A-B"));
+        assertFalse(OrderKeys.isValid("ñ"));
+        assertTrue(OrderKeys.isValid("V"));
+        assertTrue(OrderKeys.isValid("A01"));
+    }
+
+    @Test
+    void refusesBoundsWithNoRoomBeforeThem() {
+        // Antes devolvían "0V" y "A0V", fuera del rango pedido
+        assertThrows(IllegalArgumentException.class, () -> OrderKeys.between(null, "0"));
+        assertThrows(IllegalArgumentException.class, () -> OrderKeys.between("A", "A0"));
+        assertThrows(IllegalArgumentException.class, () -> OrderKeys.between("A", "A-"));
+        assertThrows(IllegalArgumentException.class, () -> OrderKeys.between("B", "A"));
+        assertThrows(IllegalArgumentException.class, () -> OrderKeys.between("A", "A"));
+    }
+
+    @Test
+    void generatesValidKeysStrictlyBetweenTheBounds() {
+        assertBetween(null, null);
+        assertBetween(null, "1");
+        assertBetween(null, "01");
+        assertBetween("z", null);
+        assertBetween("zzz", null);
+        assertBetween("A", "B");
+        assertBetween("A", "A1");
+        assertBetween("A", "A01");
+        assertBetween("Az", "B");
+        assertBetween("A1", "A2");
+    }
+
+    @Test
+    void keepsOrderUnderRepeatedInsertions() {
+        Random random = new Random(42);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int index = random.nextInt(keys.size() + 1);
+            // Un tercio al principio o al final, el resto en el medio
+            if (i % 3 == 0) {
+                index = random.nextBoolean() ? 0 : keys.size();
+            }
+            String lower = index > 0 ? keys.get(index - 1) : null;
+            String upper = index < keys.size() ? keys.get(index) : null;
+            keys.add(index, assertBetween(lower, upper));
+        }
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0, keys.get(i - 1) + " >= " + keys.get(i));
+        }
+    }
+
+    @Test
+    void appendsAndPrependsWithoutTouchingNeighbours() {
+        String first = OrderKeys.after(null);
+        String second = OrderKeys.after(first);
+        String zeroth = OrderKeys.before(first);
+        assertTrue(zeroth.compareTo(first) < 0);
+        assertTrue(first.compareTo(second) < 0);
+        assertEquals(first, OrderKeys.before(null));
+    }
+
+    private static String assertBetween(String lower, String upper) {
+        String key = OrderKeys.between(lower, upper);
+        assertTrue(OrderKeys.isValid(key), "clave inválida " + key);
+        assertTrue(lower == null || lower.compareTo(key) < 0, key + " no es mayor que " + lower);
+        assertTrue(upper == null || key.compareTo(upper) < 0, key + " no es menor que " + upper);
+        return key;
+    }
+}
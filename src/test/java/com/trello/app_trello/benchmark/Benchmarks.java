@@ -0,0 +1,71 @@
+package com.trello.app_trello.benchmark;
+
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.BuissnessLogic.BoardItems;
+import com.trello.app_trello.BuissnessLogic.Card;
+import com.trello.app_trello.BuissnessLogic.OrderKeys;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.ArrayList;
+
+// Utilidades compartidas por los benchmarks JMH.
+// Cada clase deja sus resultados en <jmh.resultDir>/<Clase>.json (por defecto target/jmh),
+// para comparar entre commits con cualquier visor de resultados de JMH.
+public final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    // Corre los métodos @Benchmark de la clase en JVMs aparte, con el perfilador de GC
+    public static void run(Class<?> benchmark) throws RunnerException {
+        File resultDir = new File(System.getProperty("jmh.resultDir", "target/jmh"));
+        resultDir.mkdirs();
+        Options options = new OptionsBuilder()
+                .include(benchmark.getName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(new File(resultDir, benchmark.getSimpleName() + ".json").getPath())
+                .build();
+        new Runner(options).run();
+    }
+
+    // Tablero con "cards" cards repartidas en "lists" listas ("lista 0", "lista 1", ...),
+    // con IDs y claves de orden como los que genera el servicio
+    public static Board board(int lists, int cards) {
+        Board board = new Board();
+        board.setName("benchmark");
+        board.setOwner("benchmark-user");
+        board.setLists(new ArrayList<>());
+        for (int l = 0; l < lists; l++) {
+            com.trello.app_trello.BuissnessLogic.List list = new com.trello.app_trello.BuissnessLogic.List();
+            list.setId(BoardItems.newId());
+            list.setTitle("lista " + l);
+            list.setPosition(OrderKeys.after(BoardItems.lastListPosition(board)));
+            list.setCards(new ArrayList<>());
+            BoardItems.addList(board, list);
+        }
+        for (int c = 0; c < cards; c++) {
+            com.trello.app_trello.BuissnessLogic.List list = board.getLists().get(c % lists);
+            BoardItems.cards(list).add(card("card " + c, OrderKeys.after(BoardItems.lastCardPosition(list))));
+        }
+        return board;
+    }
+
+    public static Card card(String title, String position) {
+        Card card = new Card();
+        card.setId(BoardItems.newId());
+        card.setTitle(title);
+        card.setDescription("Descripción de " + title);
+        ArrayList<String> assignedUsers = new ArrayList<>();
+        assignedUsers.add("benchmark-user");
+        card.setAssignedUsers(assignedUsers);
+        card.setPosition(position);
+        return card;
+    }
+}
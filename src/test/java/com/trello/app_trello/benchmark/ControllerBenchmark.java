@@ -0,0 +1,98 @@
+package com.trello.app_trello.benchmark;
+
+import com.trello.app_trello.AppTrelloApplication;
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.service.BoardService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Camino completo por HTTP (Tomcat, controlador, servicio, Jackson) contra el almacenamiento
+// embebido. GET mide por tiempo; POST agrega cards, así que se mide en lotes sobre un
+// tablero recién creado, como en ServiceBenchmark.
+// Corre con: mvn test -Pbenchmark
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class ControllerBenchmark {
+
+    private static final int LISTS = 20;
+    private static final int BATCH = 50;
+
+    @Param({"10", "1000"})
+    public int cards;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private HttpRequest getBoard;
+    private HttpRequest addCard;
+
+    @Test
+    void run() throws Exception {
+        Benchmarks.run(ControllerBenchmark.class);
+    }
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(AppTrelloApplication.class)
+                .run("--spring.profiles.active=test", "--server.port=0", "--board.rate-limit.enabled=false");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/boards/";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @Setup(Level.Iteration)
+    public void createBoard() {
+        Board board = context.getBean(BoardService.class).createBoard(Benchmarks.board(LISTS, cards));
+        String listTitle = board.getLists().get(LISTS - 1).getTitle();
+        getBoard = HttpRequest.newBuilder(URI.create(baseUrl + board.getId())).GET().build();
+        addCard = HttpRequest.newBuilder(URI.create(baseUrl + board.getId() + "/lists/"
+                        + URLEncoder.encode(listTitle, StandardCharsets.UTF_8).replace("+", "%20") + "/cards"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"nueva\",\"description\":\"\"}"))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public int getBoard() throws IOException, InterruptedException {
+        return send(getBoard);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10, batchSize = BATCH)
+    @Measurement(iterations = 20, batchSize = BATCH)
+    public int addCard() throws IOException, InterruptedException {
+        return send(addCard);
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("HTTP " + response.statusCode() + " en " + request.uri());
+        }
+        return response.body().length;
+    }
+}
@@ -0,0 +1,129 @@
+package com.trello.app_trello.benchmark;
+
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.BuissnessLogic.BoardItems;
+import com.trello.app_trello.BuissnessLogic.Card;
+import com.trello.app_trello.BuissnessLogic.OrderKeys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Asignación de memoria por AddCard: el modelo anterior (listas como Map<String, Object>,
+// búsqueda recorriendo las listas y la card convertida a HashMap) contra las clases List/Card
+// con el índice por título. La columna que importa es gc.alloc.rate.norm (bytes por operación).
+// Corre con: mvn test -Pbenchmark
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomainModelBenchmark {
+
+    private static final int LISTS = 20;
+
+    @Param({"10", "1000", "10000"})
+    public int cards;
+
+    private ArrayList<Map<String, Object>> mapLists;
+    private Board board;
+    private Card card;
+    private String targetTitle;
+
+    @Test
+    void compareAllocation() throws Exception {
+        Benchmarks.run(DomainModelBenchmark.class);
+    }
+
+    @Setup
+    public void setUp() {
+        mapLists = new ArrayList<>();
+        board = new Board();
+        board.setLists(new ArrayList<>());
+        String listPosition = null;
+        for (int l = 0; l < LISTS; l++) {
+            listPosition = OrderKeys.after(listPosition);
+            Map<String, Object> mapList = new HashMap<>();
+            mapList.put("id", BoardItems.newId());
+            mapList.put("title", "lista " + l);
+            mapList.put("position", listPosition);
+            List<Map<String, Object>> mapCards = new ArrayList<>();
+            mapList.put("cards", mapCards);
+            mapLists.add(mapList);
+
+            com.trello.app_trello.BuissnessLogic.List list = new com.trello.app_trello.BuissnessLogic.List();
+            list.setId((String) mapList.get("id"));
+            list.setTitle((String) mapList.get("title"));
+            list.setPosition(listPosition);
+            list.setCards(new ArrayList<>());
+            BoardItems.addList(board, list);
+
+            String cardPosition = null;
+            for (int c = 0; c < cards / LISTS + 1; c++) {
+                cardPosition = OrderKeys.after(cardPosition);
+                Card typed = newCard("card " + c, cardPosition);
+                BoardItems.cards(list).add(typed);
+                mapCards.add(toMap(typed));
+            }
+        }
+        // La última lista: el peor caso para la búsqueda por recorrido
+        targetTitle = "lista " + (LISTS - 1);
+        card = newCard("nueva", null);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void mapModel(Blackhole blackhole) {
+        // Como antes: copia de las listas al leer el tablero, recorrido por título y card como HashMap
+        List<Map<String, Object>> lists = new ArrayList<>(mapLists);
+        Map<String, Object> targetList = lists.stream()
+                .filter(list -> targetTitle.equals(list.get("title")))
+                .findFirst()
+                .orElseThrow();
+        List<Map<String, Object>> cardMaps = (List<Map<String, Object>>) targetList.get("cards");
+        Map<String, Object> last = cardMaps.get(cardMaps.size() - 1);
+        card.setPosition(OrderKeys.after((String) last.get("position")));
+        cardMaps.add(toMap(card));
+        blackhole.consume(lists);
+        cardMaps.remove(cardMaps.size() - 1);
+    }
+
+    @Benchmark
+    public void typedModel(Blackhole blackhole) {
+        Optional<com.trello.app_trello.BuissnessLogic.List> targetList = BoardItems.findList(board, targetTitle);
+        ArrayList<Card> typedCards = BoardItems.cards(targetList.orElseThrow());
+        card.setPosition(OrderKeys.after(BoardItems.lastCardPosition(targetList.get())));
+        typedCards.add(newCard(card.getTitle(), card.getPosition()));
+        blackhole.consume(board);
+        typedCards.remove(typedCards.size() - 1);
+    }
+
+    private static Card newCard(String title, String position) {
+        Card card = new Card();
+        card.setId(BoardItems.newId());
+        card.setTitle(title);
+        card.setDescription("");
+        card.setAssignedUsers(new ArrayList<>());
+        card.setPosition(position);
+        return card;
+    }
+
+    private static Map<String, Object> toMap(Card card) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", card.getId());
+        map.put("title", card.getTitle());
+        map.put("description", card.getDescription());
+        map.put("assignedUsers", card.getAssignedUsers());
+        map.put("position", card.getPosition());
+        return map;
+    }
+}
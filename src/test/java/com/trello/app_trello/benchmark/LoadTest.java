@@ -0,0 +1,408 @@
+package com.trello.app_trello.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trello.app_trello.AppTrelloApplication;
+import com.trello.app_trello.BuissnessLogic.Board;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Prueba de carga por HTTP con una mezcla de operaciones de BoardController sobre tableros de
+// distintos tamaños. Cada usuario virtual manda un pedido, espera la respuesta y manda el
+// siguiente (carga cerrada); las operaciones salen de un Random con semilla fija, así dos
+// corridas con los mismos parámetros mandan la misma secuencia por usuario.
+// Por defecto arranca la aplicación en este proceso con el perfil test: el almacenamiento
+// embebido, con board.store.simulated-latency-ms haciendo de round trip a Firestore. Con
+// load.baseUrl se prueba una instancia ya levantada (p. ej. con el perfil prod).
+//   mvn test -Pbenchmark -Dtest=LoadTest
+//   mvn test -Pbenchmark -Dtest=LoadTest -Dload.users=64 -Dload.mix=getBoard=90,addCard=10
+// Parámetros (-D): load.users, load.durationSeconds, load.warmupSeconds, load.boardSizes
+// (cards por tablero), load.boardsPerSize, load.mix (operación=peso), load.seed,
+// load.storeLatencyMs y load.baseUrl.
+// Umbrales: load.maxErrorRate (0.01), load.maxP99Millis y load.minThroughput (0 = sin umbral).
+// Deja throughput, percentiles y errores por operación en <jmh.resultDir>/LoadTest.json
+@Tag("benchmark")
+public class LoadTest {
+
+    private static final int LISTS = 10;
+    private static final String DEFAULT_MIX =
+            "getBoard=55,getUserBoards=10,addCard=12,deleteCard=8,moveCard=7,addList=4,deleteList=4";
+
+    private static final int USERS = Integer.getInteger("load.users", 32);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.durationSeconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmupSeconds", 5);
+    private static final String BOARD_SIZES = System.getProperty("load.boardSizes", "10,200,2000");
+    private static final int BOARDS_PER_SIZE = Integer.getInteger("load.boardsPerSize", 4);
+    private static final String MIX = System.getProperty("load.mix", DEFAULT_MIX);
+    private static final long SEED = Long.getLong("load.seed", 42);
+    private static final int STORE_LATENCY_MS = Integer.getInteger("load.storeLatencyMs", 2);
+    private static final String BASE_URL = System.getProperty("load.baseUrl", "");
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.maxErrorRate", "0.01"));
+    private static final double MAX_P99_MILLIS = Double.parseDouble(System.getProperty("load.maxP99Millis", "0"));
+    private static final double MIN_THROUGHPUT = Double.parseDouble(System.getProperty("load.minThroughput", "0"));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private String boardsUrl;
+
+    @Test
+    void mixedWorkload() throws Exception {
+        ConfigurableApplicationContext context = null;
+        String baseUrl = BASE_URL;
+        if (baseUrl.isBlank()) {
+            context = new SpringApplicationBuilder(AppTrelloApplication.class)
+                    .run("--spring.profiles.active=test", "--server.port=0", "--board.rate-limit.enabled=false",
+                            "--board.store.simulated-latency-ms=" + STORE_LATENCY_MS);
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        }
+        boardsUrl = baseUrl.replaceAll("/+$", "") + "/api/boards/";
+        try {
+            List<Operation> mix = parseMix(MIX);
+            List<TestBoard> boards = createBoards();
+
+            // Calentamiento con la misma mezcla; sus mediciones se descartan
+            run(mix, boards, WARMUP_SECONDS, SEED - 1);
+            long start = System.nanoTime();
+            Map<Operation, Recorder> recorders = run(mix, boards, DURATION_SECONDS, SEED);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            LoadResult result = result(recorders, seconds);
+            print(result);
+            File resultDir = new File(System.getProperty("jmh.resultDir", "target/jmh"));
+            resultDir.mkdirs();
+            objectMapper.writerWithDefaultPrettyPrinter()
+                    .writeValue(new File(resultDir, LoadTest.class.getSimpleName() + ".json"), result);
+
+            assertTrue(result.errorRate() <= MAX_ERROR_RATE,
+                    "Tasa de errores " + result.errorRate() + " mayor que " + MAX_ERROR_RATE + ": " + result.errors());
+            if (MAX_P99_MILLIS > 0) {
+                assertTrue(result.p99Millis() <= MAX_P99_MILLIS,
+                        "p99 de " + result.p99Millis() + " ms mayor que " + MAX_P99_MILLIS + " ms");
+            }
+            if (MIN_THROUGHPUT > 0) {
+                assertTrue(result.throughput() >= MIN_THROUGHPUT,
+                        "Throughput de " + result.throughput() + " pedidos/s menor que " + MIN_THROUGHPUT);
+            }
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    public enum Operation {
+        getBoard, getUserBoards, addCard, deleteCard, moveCard, addList, deleteList
+    }
+
+    public record LoadResult(Map<String, Object> parameters, double seconds, long requests, double throughput,
+                             double errorRate, double p50Millis, double p99Millis,
+                             Map<String, Integer> errors, Map<Operation, OperationResult> operations) {
+    }
+
+    public record OperationResult(long requests, double throughput, long errors, double p50Millis,
+                                  double p90Millis, double p99Millis, double p999Millis, double maxMillis) {
+    }
+
+    // --- Métodos privados ---
+
+    // Tableros de cada tamaño, con un dueño por tamaño para que getUserBoards devuelva varios
+    private List<TestBoard> createBoards() throws IOException, InterruptedException {
+        List<TestBoard> boards = new ArrayList<>();
+        for (String size : BOARD_SIZES.split(",")) {
+            int cards = Integer.parseInt(size.trim());
+            for (int i = 0; i < BOARDS_PER_SIZE; i++) {
+                Board board = Benchmarks.board(LISTS, cards);
+                board.setName("carga " + cards + " #" + i);
+                board.setOwner("load-user-" + cards);
+                HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(boardsUrl))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(board)))
+                                .build(),
+                        HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 201) {
+                    throw new IllegalStateException("No se pudo crear el tablero: HTTP " + response.statusCode());
+                }
+                JsonNode created = objectMapper.readTree(response.body());
+                List<String> listIds = new ArrayList<>();
+                List<String> listTitles = new ArrayList<>();
+                created.path("lists").forEach(list -> {
+                    listIds.add(list.path("id").asText());
+                    listTitles.add(list.path("title").asText());
+                });
+                boards.add(new TestBoard(created.path("id").asText(), board.getOwner(), listIds, listTitles));
+            }
+        }
+        return boards;
+    }
+
+    private Map<Operation, Recorder> run(List<Operation> mix, List<TestBoard> boards, int seconds, long seed)
+            throws Exception {
+        Map<Operation, Recorder> recorders = new TreeMap<>();
+        if (seconds <= 0) {
+            return recorders;
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService users = Executors.newFixedThreadPool(USERS);
+        try {
+            List<Future<Map<Operation, Recorder>>> results = new ArrayList<>();
+            for (int user = 0; user < USERS; user++) {
+                VirtualUser virtualUser = new VirtualUser(user, new Random(seed * 31 + user), mix, boards);
+                results.add(users.submit(() -> virtualUser.runUntil(deadline)));
+            }
+            for (Future<Map<Operation, Recorder>> result : results) {
+                result.get().forEach((operation, recorder) ->
+                        recorders.computeIfAbsent(operation, o -> new Recorder()).addAll(recorder));
+            }
+        } finally {
+            users.shutdownNow();
+        }
+        return recorders;
+    }
+
+    private LoadResult result(Map<Operation, Recorder> recorders, double seconds) {
+        Recorder all = new Recorder();
+        Map<Operation, OperationResult> operations = new LinkedHashMap<>();
+        recorders.forEach((operation, recorder) -> {
+            all.addAll(recorder);
+            long[] sorted = recorder.sortedLatencies();
+            operations.put(operation, new OperationResult(recorder.count, recorder.count / seconds, recorder.errorCount(),
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    percentile(sorted, 0.999), percentile(sorted, 1.0)));
+        });
+        long[] sorted = all.sortedLatencies();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("target", BASE_URL.isBlank() ? "embebido, latencia " + STORE_LATENCY_MS + " ms" : BASE_URL);
+        parameters.put("users", USERS);
+        parameters.put("boardSizes", BOARD_SIZES);
+        parameters.put("boardsPerSize", BOARDS_PER_SIZE);
+        parameters.put("mix", MIX);
+        parameters.put("seed", SEED);
+        return new LoadResult(parameters, seconds, all.count, all.count / seconds,
+                all.count == 0 ? 0 : (double) all.errorCount() / all.count,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), new TreeMap<>(all.errors), operations);
+    }
+
+    private static void print(LoadResult result) {
+        System.out.printf("%d pedidos en %.1f s: %.0f pedidos/s, errores %.3f%%, p50 %.2f ms, p99 %.2f ms%n",
+                result.requests(), result.seconds(), result.throughput(), result.errorRate() * 100,
+                result.p50Millis(), result.p99Millis());
+        System.out.printf("%-14s %9s %9s %7s %9s %9s %9s %9s %9s%n",
+                "operación", "pedidos", "ped/s", "errores", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        result.operations().forEach((operation, r) -> System.out.printf(
+                "%-14s %9d %9.0f %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n", operation, r.requests(), r.throughput(),
+                r.errors(), r.p50Millis(), r.p90Millis(), r.p99Millis(), r.p999Millis(), r.maxMillis()));
+        if (!result.errors().isEmpty()) {
+            System.out.println("Errores: " + result.errors());
+        }
+    }
+
+    // Operaciones repetidas según su peso, para elegir una con un índice al azar
+    private static List<Operation> parseMix(String mix) {
+        List<Operation> operations = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            Operation operation = Operation.valueOf(parts[0].trim());
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            for (int i = 0; i < weight; i++) {
+                operations.add(operation);
+            }
+        }
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("load.mix no tiene operaciones: " + mix);
+        }
+        return operations;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    private record TestBoard(String id, String owner, List<String> listIds, List<String> listTitles) {
+    }
+
+    private record CreatedCard(TestBoard board, String listId, String cardId) {
+    }
+
+    private record CreatedList(TestBoard board, String listId) {
+    }
+
+    // Latencias (ns) y errores por código de estado de una operación
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private final Map<String, Integer> errors = new TreeMap<>();
+
+        private void record(long nanos, String error) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (error != null) {
+                errors.merge(error, 1, Integer::sum);
+            }
+        }
+
+        private void addAll(Recorder other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], null);
+            }
+            other.errors.forEach((error, n) -> errors.merge(error, n, Integer::sum));
+        }
+
+        private long errorCount() {
+            return errors.values().stream().mapToLong(Integer::longValue).sum();
+        }
+
+        private long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    // Cada usuario borra y mueve solo cards y listas que creó él, así un 404 es un error real
+    // y no una carrera entre usuarios
+    private final class VirtualUser {
+        private final int index;
+        private final Random random;
+        private final List<Operation> mix;
+        private final List<TestBoard> boards;
+        private final List<CreatedCard> cards = new ArrayList<>();
+        private final List<CreatedList> lists = new ArrayList<>();
+        private final Map<Operation, Recorder> recorders = new TreeMap<>();
+        private int created;
+        // Qué hacer con el cuerpo de la respuesta si el pedido sale bien
+        private Consumer<String> onSuccess;
+
+        private VirtualUser(int index, Random random, List<Operation> mix, List<TestBoard> boards) {
+            this.index = index;
+            this.random = random;
+            this.mix = mix;
+            this.boards = boards;
+        }
+
+        private Map<Operation, Recorder> runUntil(long deadline) {
+            while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                Operation operation = mix.get(random.nextInt(mix.size()));
+                if (operation == Operation.deleteCard || operation == Operation.moveCard) {
+                    operation = cards.isEmpty() ? Operation.addCard : operation;
+                } else if (operation == Operation.deleteList && lists.isEmpty()) {
+                    operation = Operation.addList;
+                }
+                execute(operation);
+            }
+            return recorders;
+        }
+
+        private void execute(Operation operation) {
+            TestBoard board = boards.get(random.nextInt(boards.size()));
+            onSuccess = body -> {
+            };
+            HttpRequest request = switch (operation) {
+                case getBoard -> get(boardsUrl + board.id());
+                case getUserBoards -> get(boardsUrl + "user/" + encode(board.owner()));
+                case addCard -> {
+                    int list = random.nextInt(board.listIds().size());
+                    onSuccess = body -> cards.add(new CreatedCard(board, board.listIds().get(list), idOf(body)));
+                    yield post(boardsUrl + board.id() + "/lists/" + encode(board.listTitles().get(list)) + "/cards",
+                            "{\"title\":\"carga " + index + "-" + (created++) + "\",\"description\":\"\"}");
+                }
+                case deleteCard -> {
+                    CreatedCard card = cards.remove(random.nextInt(cards.size()));
+                    yield HttpRequest.newBuilder(URI.create(boardsUrl + card.board().id() + "/lists/id/"
+                            + card.listId() + "/cards/" + card.cardId())).DELETE().build();
+                }
+                case moveCard -> {
+                    CreatedCard card = cards.get(random.nextInt(cards.size()));
+                    String target = card.board().listIds().get(random.nextInt(card.board().listIds().size()));
+                    onSuccess = body -> cards.set(cards.indexOf(card), new CreatedCard(card.board(), target, card.cardId()));
+                    yield post(boardsUrl + card.board().id() + "/cards/" + card.cardId() + "/move",
+                            "{\"listId\":\"" + target + "\"}");
+                }
+                case addList -> {
+                    onSuccess = body -> lists.add(new CreatedList(board, idOf(body)));
+                    yield post(boardsUrl + board.id() + "/lists", "{\"title\":\"carga " + index + "-" + (created++) + "\"}");
+                }
+                case deleteList -> {
+                    CreatedList list = lists.remove(random.nextInt(lists.size()));
+                    yield HttpRequest.newBuilder(URI.create(boardsUrl + list.board().id() + "/lists/id/"
+                            + list.listId())).DELETE().build();
+                }
+            };
+
+            long start = System.nanoTime();
+            String error = null;
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() >= 400) {
+                    error = operation + " HTTP " + response.statusCode();
+                } else {
+                    onSuccess.accept(response.body());
+                }
+            } catch (IOException e) {
+                error = operation + " " + e.getClass().getSimpleName();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            recorders.computeIfAbsent(operation, o -> new Recorder()).record(System.nanoTime() - start, error);
+        }
+
+        private String idOf(String body) {
+            try {
+                return objectMapper.readTree(body).path("id").asText();
+            } catch (IOException e) {
+                throw new IllegalStateException("Respuesta sin ID: " + body, e);
+            }
+        }
+
+        private HttpRequest get(String url) {
+            return HttpRequest.newBuilder(URI.create(url)).GET().build();
+        }
+
+        private HttpRequest post(String url, String body) {
+            return HttpRequest.newBuilder(URI.create(url))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+    }
+}
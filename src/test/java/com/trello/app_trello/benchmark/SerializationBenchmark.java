@@ -0,0 +1,54 @@
+package com.trello.app_trello.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trello.app_trello.BuissnessLogic.Board;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Jackson sobre Board con la misma configuración que usa Spring MVC: la respuesta de
+// GET /api/boards/{id} (escritura) y el cuerpo de PUT /api/boards/{id} (lectura).
+// Corre con: mvn test -Pbenchmark
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int cards;
+
+    private ObjectMapper objectMapper;
+    private Board board;
+    private byte[] json;
+
+    @Test
+    void run() throws Exception {
+        Benchmarks.run(SerializationBenchmark.class);
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        board = Benchmarks.board(20, cards);
+        board.setId("benchmark");
+        json = objectMapper.writeValueAsBytes(board);
+    }
+
+    @Benchmark
+    public byte[] writeBoard() throws IOException {
+        return objectMapper.writeValueAsBytes(board);
+    }
+
+    @Benchmark
+    public Board readBoard() throws IOException {
+        return objectMapper.readValue(json, Board.class);
+    }
+}
@@ -0,0 +1,108 @@
+package com.trello.app_trello.benchmark;
+
+import com.trello.app_trello.AppTrelloApplication;
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.BuissnessLogic.Card;
+import com.trello.app_trello.service.BoardService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+// AddCard y deleteCard del servicio contra el almacenamiento embebido, en tableros de 10 a
+// 10.000 cards. Cada medición es un lote de BATCH operaciones sobre un tablero recién creado
+// (agregar cards lo hace crecer, así que no se puede medir por tiempo fijo sin deformarlo).
+// Corre con: mvn test -Pbenchmark
+@Tag("benchmark")
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10, batchSize = ServiceBenchmark.BATCH)
+@Measurement(iterations = 20, batchSize = ServiceBenchmark.BATCH)
+@Fork(1)
+public class ServiceBenchmark {
+
+    static final int BATCH = 50;
+    private static final int LISTS = 20;
+
+    @Test
+    void run() throws Exception {
+        Benchmarks.run(ServiceBenchmark.class);
+    }
+
+    @State(Scope.Benchmark)
+    public static class App {
+        ConfigurableApplicationContext context;
+        BoardService boardService;
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = new SpringApplicationBuilder(AppTrelloApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run("--spring.profiles.active=test");
+            boardService = context.getBean(BoardService.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class AddCardState {
+        @Param({"10", "100", "1000", "10000"})
+        public int cards;
+
+        String boardId;
+        String listTitle;
+
+        @Setup(Level.Iteration)
+        public void createBoard(App app) {
+            Board board = app.boardService.createBoard(Benchmarks.board(LISTS, cards));
+            boardId = board.getId();
+            listTitle = board.getLists().get(LISTS - 1).getTitle();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class DeleteCardState {
+        @Param({"10", "100", "1000", "10000"})
+        public int cards;
+
+        String boardId;
+        // Pares listId/cardId a borrar, uno por operación del lote
+        final Deque<String[]> targets = new ArrayDeque<>();
+
+        @Setup(Level.Iteration)
+        public void createBoard(App app) {
+            // Las cards que se borran van aparte, así el tablero termina el lote con "cards" cards
+            Board board = app.boardService.createBoard(Benchmarks.board(LISTS, cards + BATCH));
+            boardId = board.getId();
+            targets.clear();
+            for (com.trello.app_trello.BuissnessLogic.List list : board.getLists()) {
+                for (Card card : list.getCards()) {
+                    if (targets.size() < BATCH) {
+                        targets.add(new String[]{list.getId(), card.getId()});
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Card addCard(App app, AddCardState state) {
+        return app.boardService.AddCard(state.boardId, state.listTitle, Benchmarks.card("nueva", null));
+    }
+
+    @Benchmark
+    public void deleteCard(App app, DeleteCardState state) {
+        String[] target = state.targets.poll();
+        app.boardService.deleteCardByIdAsync(state.boardId, target[0], target[1]).join();
+    }
+}
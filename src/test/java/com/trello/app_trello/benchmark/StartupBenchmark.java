@@ -0,0 +1,116 @@
+package com.trello.app_trello.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trello.app_trello.AppTrelloApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Tiempo desde que se lanza el proceso hasta la primera respuesta 200, en procesos nuevos
+// (no sirve medirlo en la JVM de los tests: las clases ya estarían cargadas).
+// Por defecto arranca la aplicación con el perfil test desde el classpath de los tests. Para
+// medir el jar con CDS o el binario nativo, el comando va en startup.command (el puerto se
+// agrega al final):
+//   mvn test -Pbenchmark -Dtest=StartupBenchmark
+//   mvn test -Pbenchmark -Dtest=StartupBenchmark -Dstartup.command="target/app-trello"
+// Deja min, mediana y máximo en <jmh.resultDir>/StartupBenchmark.json
+@Tag("benchmark")
+public class StartupBenchmark {
+
+    private static final int RUNS = Integer.getInteger("startup.runs", 5);
+    private static final String PATH = System.getProperty("startup.path", "/api/boards/user/startup");
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(120);
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void timeToFirstRequest() throws Exception {
+        List<Long> millis = new ArrayList<>();
+        for (int run = 0; run < RUNS; run++) {
+            millis.add(startAndRequest());
+        }
+        List<Long> sorted = new ArrayList<>(millis);
+        Collections.sort(sorted);
+        StartupResult result = new StartupResult(System.getProperty("startup.command", "classpath, perfil test"), PATH, sorted.get(0),
+                sorted.get(sorted.size() / 2), sorted.get(sorted.size() - 1), millis);
+        System.out.printf("Primera respuesta: min %d ms, mediana %d ms, max %d ms (%d corridas)%n",
+                result.minMillis(), result.medianMillis(), result.maxMillis(), RUNS);
+
+        File resultDir = new File(System.getProperty("jmh.resultDir", "target/jmh"));
+        resultDir.mkdirs();
+        new ObjectMapper().writerWithDefaultPrettyPrinter()
+                .writeValue(new File(resultDir, StartupBenchmark.class.getSimpleName() + ".json"), result);
+    }
+
+    public record StartupResult(String command, String path, long minMillis, long medianMillis,
+                                long maxMillis, List<Long> samplesMillis) {
+    }
+
+    // --- Métodos privados ---
+    private long startAndRequest() throws Exception {
+        int port = freePort();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + PATH)).GET().build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command(port))
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("La aplicación terminó al arrancar (código " + process.exitValue() + ")");
+                }
+                if (System.nanoTime() - start > TIMEOUT_NANOS) {
+                    throw new IllegalStateException("La aplicación no respondió en " + PATH);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (ConnectException e) {
+                    // Todavía no escucha
+                }
+                Thread.sleep(10);
+            }
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static List<String> command(int port) {
+        List<String> command = new ArrayList<>();
+        String custom = System.getProperty("startup.command");
+        if (custom != null && !custom.isBlank()) {
+            command.addAll(Arrays.asList(custom.trim().split("\\s+")));
+        } else {
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(AppTrelloApplication.class.getName());
+            command.add("--spring.profiles.active=test");
+        }
+        command.add("--server.port=" + port);
+        return command;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
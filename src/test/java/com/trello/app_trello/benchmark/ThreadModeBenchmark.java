@@ -0,0 +1,214 @@
+package com.trello.app_trello.benchmark;
+
+import com.trello.app_trello.AppTrelloApplication;
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.service.BoardService;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Compara hilos de plataforma contra hilos virtuales con el almacenamiento embebido
+// simulando la latencia bloqueante de Firestore. Corre con: mvn test -Pbenchmark
+@Tag("benchmark")
+class ThreadModeBenchmark {
+
+    private static final int CLIENTS = 400;
+    private static final int REQUESTS_PER_CLIENT = 25;
+    private static final int STORE_LATENCY_MS = 20;
+    private static final int TOMCAT_MAX_THREADS = 50;
+
+    @Test
+    void compareThreadModes() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%-10s %10s %10s %14s %12s %8s%n",
+                "mode", "p50 (ms)", "p99 (ms)", "max in-flight", "req/s", "errors");
+        for (Result result : new Result[]{platform, virtual}) {
+            System.out.printf("%-10s %10.1f %10.1f %14d %12.0f %8d%n",
+                    result.mode(), result.p50Millis(), result.p99Millis(),
+                    result.maxInFlight(), result.throughput(), result.errors());
+        }
+
+        assertEquals(0, platform.errors());
+        assertEquals(0, virtual.errors());
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        InFlightFilter inFlight = new InFlightFilter();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AppTrelloApplication.class)
+                .initializers(ctx -> ((GenericApplicationContext) ctx)
+                        .registerBean("inFlightFilter", Filter.class, () -> inFlight))
+                .run("--spring.profiles.active=test",
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.tomcat.threads.max=" + TOMCAT_MAX_THREADS,
+                        "--board.cache.enabled=false",
+                        "--board.store.simulated-latency-ms=" + STORE_LATENCY_MS)) {
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            Board board = new Board();
+            board.setName("benchmark");
+            board.setOwner("benchmark-user");
+            board.setLists(new ArrayList<>());
+            board = context.getBean(BoardService.class).createBoard(board);
+
+            HttpRequest request = HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + port + "/api/boards/" + board.getId())).GET().build();
+            long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+            AtomicInteger next = new AtomicInteger();
+            AtomicLong errors = new AtomicLong();
+
+            try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(clientThreads)
+                        .build();
+
+                // Calentamiento
+                for (int i = 0; i < 200; i++) {
+                    client.send(request, HttpResponse.BodyHandlers.discarding());
+                }
+                inFlight.reset();
+
+                long start = System.nanoTime();
+                try (ExecutorService load = Executors.newVirtualThreadPerTaskExecutor()) {
+                    for (int c = 0; c < CLIENTS; c++) {
+                        load.submit(() -> {
+                            for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                                long t0 = System.nanoTime();
+                                try {
+                                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                                    if (response.statusCode() != 200) {
+                                        errors.incrementAndGet();
+                                    }
+                                } catch (IOException | InterruptedException e) {
+                                    errors.incrementAndGet();
+                                }
+                                latencies[next.getAndIncrement()] = System.nanoTime() - t0;
+                            }
+                        });
+                    }
+                }
+                double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+                Arrays.sort(latencies);
+                return new Result(
+                        virtualThreads ? "virtual" : "platform",
+                        percentile(latencies, 0.50),
+                        percentile(latencies, 0.99),
+                        inFlight.max(),
+                        latencies.length / elapsedSeconds,
+                        errors.get()
+                );
+            }
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private record Result(String mode, double p50Millis, double p99Millis, int maxInFlight,
+                          double throughput, long errors) {
+    }
+
+    // Cuenta las peticiones que el servidor está atendiendo al mismo tiempo
+    private static class InFlightFilter implements Filter {
+
+        private final AtomicInteger current = new AtomicInteger();
+        private final AtomicInteger max = new AtomicInteger();
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+                throws IOException, ServletException {
+            if (request.getDispatcherType() != DispatcherType.REQUEST) {
+                chain.doFilter(request, response);
+                return;
+            }
+            max.accumulateAndGet(current.incrementAndGet(), Math::max);
+            boolean async = false;
+            try {
+                chain.doFilter(request, response);
+                // Con CompletableFuture el hilo vuelve antes de responder: la petición sigue
+                // en vuelo hasta que termina el procesamiento asíncrono
+                if (request.isAsyncStarted()) {
+                    request.getAsyncContext().addListener(new Completion());
+                    async = true;
+                }
+            } finally {
+                if (!async) {
+                    current.decrementAndGet();
+                }
+            }
+        }
+
+        int max() {
+            return max.get();
+        }
+
+        void reset() {
+            max.set(0);
+        }
+
+        // onError y onTimeout suelen venir seguidos de onComplete: se descuenta una sola vez
+        private class Completion implements AsyncListener {
+
+            private final AtomicBoolean done = new AtomicBoolean();
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+                finish();
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                finish();
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                finish();
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+                // Un nuevo ciclo asíncrono reemplaza los listeners: hay que volver a registrarse
+                event.getAsyncContext().addListener(this);
+            }
+
+            private void finish() {
+                if (done.compareAndSet(false, true)) {
+                    current.decrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.trello.app_trello.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketsTest {
+
+    @Test
+    void allowsTheBurstAndThenRejectsWithTheWait() {
+        // Un token cada 100 ms: el burst se agota mucho antes de que se recargue otro
+        TokenBuckets buckets = new TokenBuckets(10, 5, 100);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, buckets.tryAcquire("u1"), "token " + i);
+        }
+        long wait = buckets.tryAcquire("u1");
+        assertTrue(wait > 0 && wait <= TimeUnit.MILLISECONDS.toNanos(100), "espera " + wait);
+        // Cada clave tiene su propio bucket
+        assertEquals(0, buckets.tryAcquire("u2"));
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        TokenBuckets buckets = new TokenBuckets(50, 1, 100);
+
+        assertEquals(0, buckets.tryAcquire("u1"));
+        long wait = buckets.tryAcquire("u1");
+        assertTrue(wait > 0);
+
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(5));
+        assertEquals(0, buckets.tryAcquire("u1"));
+    }
+
+    @Test
+    void neverKeepsMoreThanMaxKeys() {
+        TokenBuckets buckets = new TokenBuckets(1, 10, 100);
+
+        for (int i = 0; i < 1000; i++) {
+            buckets.tryAcquire("u" + i);
+            assertTrue(buckets.size() <= 100, "claves " + buckets.size());
+        }
+        assertTrue(buckets.size() >= 75);
+    }
+
+    @Test
+    void evictsTheIdlestBucketsFirst() {
+        TokenBuckets buckets = new TokenBuckets(1, 10, 100);
+        // "hot" gasta su burst y queda lejos de llenarse: es lo último que se descarta
+        for (int i = 0; i < 10; i++) {
+            buckets.tryAcquire("hot");
+        }
+
+        for (int i = 0; i < 500; i++) {
+            buckets.tryAcquire("u" + i);
+        }
+
+        assertTrue(buckets.tryAcquire("hot") > 0, "el bucket de hot se descartó y volvió lleno");
+    }
+
+    @Test
+    void keepsTheCapWithConcurrentNewKeys() throws InterruptedException {
+        TokenBuckets buckets = new TokenBuckets(1, 10, 100);
+        AtomicInteger largest = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int thread = 0; thread < 8; thread++) {
+            String prefix = "t" + thread + "-";
+            executor.execute(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    buckets.tryAcquire(prefix + i);
+                    largest.accumulateAndGet(buckets.size(), Math::max);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Mientras un hilo barre, las claves nuevas de los demás van al bucket de desborde
+        assertTrue(largest.get() <= 100, "claves " + largest.get());
+    }
+}
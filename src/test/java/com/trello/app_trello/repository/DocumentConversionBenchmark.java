@@ -0,0 +1,52 @@
+package com.trello.app_trello.repository;
+
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.benchmark.Benchmarks;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Conversión entre el array "lists" de un documento de Firestore y el modelo: lo que hace
+// documentToBoard en cada lectura (decode) y lo que se escribe en cada mutación (encode).
+// Está en este paquete porque BoardCodec no es público. Corre con: mvn test -Pbenchmark
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentConversionBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int cards;
+
+    private Board board;
+    private List<Map<String, Object>> document;
+
+    @Test
+    void run() throws Exception {
+        Benchmarks.run(DocumentConversionBenchmark.class);
+    }
+
+    @Setup
+    public void setUp() {
+        board = Benchmarks.board(20, cards);
+        document = BoardCodec.encodeLists(board.getLists());
+    }
+
+    @Benchmark
+    public ArrayList<com.trello.app_trello.BuissnessLogic.List> decode() {
+        return BoardCodec.decodeLists(document);
+    }
+
+    @Benchmark
+    public ArrayList<Map<String, Object>> encode() {
+        return BoardCodec.encodeLists(board.getLists());
+    }
+}
@@ -0,0 +1,88 @@
+package com.trello.app_trello.repository;
+
+import com.trello.app_trello.service.Futures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OptimisticRetryTest {
+
+    private final OptimisticRetry retry = new OptimisticRetry();
+    private final ContentionMetrics contentionMetrics = new ContentionMetrics();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(retry, "maxAttempts", 3);
+        ReflectionTestUtils.setField(retry, "contentionMetrics", contentionMetrics);
+    }
+
+    @Test
+    void retriesAfterAWriteConflictUntilItSucceeds() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = Futures.await(retry.run("b1", () -> attempts.incrementAndGet() < 3
+                ? CompletableFuture.failedFuture(new WriteConflictException("b1"))
+                : CompletableFuture.completedFuture("ok")));
+
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+        ContentionMetrics.ContentionStats stats = contentionMetrics.stats(10);
+        assertEquals(1, stats.mutations());
+        assertEquals(2, stats.retries());
+        assertEquals(0, stats.conflicts());
+    }
+
+    @Test
+    void givesUpWithConflictAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+                () -> Futures.await(retry.run("b1", () -> {
+                    attempts.incrementAndGet();
+                    return CompletableFuture.failedFuture(new WriteConflictException("b1"));
+                })));
+
+        assertEquals(HttpStatus.CONFLICT, error.getStatusCode());
+        assertEquals(3, attempts.get());
+        ContentionMetrics.ContentionStats stats = contentionMetrics.stats(10);
+        assertEquals(2, stats.retries());
+        assertEquals(1, stats.conflicts());
+        assertEquals("b1", stats.hotBoards().get(0).boardId());
+    }
+
+    @Test
+    void doesNotRetryOtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+        ResponseStatusException notFound = new ResponseStatusException(HttpStatus.NOT_FOUND, "Tablero no encontrado");
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+                () -> Futures.await(retry.run("b1", () -> {
+                    attempts.incrementAndGet();
+                    return CompletableFuture.failedFuture(notFound);
+                })));
+
+        assertSame(notFound, error);
+        assertEquals(1, attempts.get());
+        assertEquals(0, contentionMetrics.stats(10).retries());
+    }
+
+    @Test
+    void turnsAnAttemptThatThrowsIntoAFailedFuture() {
+        IllegalStateException failure = new IllegalStateException("sin conexión");
+
+        CompletableFuture<String> result = retry.run("b1", () -> {
+            throw failure;
+        });
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> Futures.await(result)));
+    }
+}
@@ -0,0 +1,150 @@
+package com.trello.app_trello.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.repository.BoardRepository;
+import com.trello.app_trello.repository.BoardWatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BoardChangeFeedTest {
+
+    // Claves de mapas ordenadas para poder escribir los eventos esperados
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+    private final BoardRepository boardRepository = mock(BoardRepository.class);
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    // Emisores que fallan al enviar con este error (null: envían bien)
+    private RuntimeException sendFailure;
+    private Consumer<Optional<Board>> onChange;
+    private boolean cancelled;
+    private BoardChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new BoardChangeFeed() {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter(timeoutMillis, sendFailure);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        // Envíos en el mismo hilo: cada evento llega a todos antes de que el test siga
+        Executor sameThread = Runnable::run;
+        ReflectionTestUtils.setField(feed, "queueSize", 16);
+        ReflectionTestUtils.setField(feed, "timeoutMinutes", 1L);
+        ReflectionTestUtils.setField(feed, "boardRepository", boardRepository);
+        ReflectionTestUtils.setField(feed, "sendExecutor", sameThread);
+        when(boardRepository.watch(eq("b1"), any(), any())).thenAnswer(invocation -> {
+            onChange = invocation.getArgument(1);
+            return (BoardWatch) () -> cancelled = true;
+        });
+    }
+
+    @Test
+    void everySubscriberGetsTheSameFrames() throws IOException {
+        Board board = board("Tablero");
+        feed.subscribe("b1");
+        onChange.accept(Optional.of(board));
+        feed.subscribe("b1");
+        feed.subscribe("b1");
+
+        onChange.accept(Optional.of(board("Renombrado")));
+        ReflectionTestUtils.invokeMethod(feed, "heartbeat");
+        ReflectionTestUtils.invokeMethod(feed, "heartbeat");
+        onChange.accept(Optional.empty());
+
+        List<String> expected = List.of(
+                "event:snapshot\ndata:" + objectMapper.writeValueAsString(board) + "\n\n",
+                "event:board-changed\ndata:"
+                        + json("{'type':'board-changed','listId':null,'cardId':null,'data':{'name':'Renombrado','owner':'u1'}}")
+                        + "\n\n",
+                ":ping\n\n",
+                ":ping\n\n",
+                "event:board-deleted\ndata:" + json("{'id':'b1'}") + "\n\n");
+        assertEquals(3, emitters.size());
+        for (RecordingEmitter emitter : emitters) {
+            assertEquals(expected, emitter.frames);
+            assertTrue(emitter.completed);
+        }
+        assertEquals(0, feed.stats().channels());
+        assertTrue(cancelled);
+    }
+
+    @Test
+    void closesASubscriberWhoseSendFails() {
+        feed.subscribe("b1");
+        sendFailure = new IllegalArgumentException("sin conversor para el evento");
+        feed.subscribe("b1");
+
+        onChange.accept(Optional.of(board("Tablero")));
+        ReflectionTestUtils.invokeMethod(feed, "heartbeat");
+
+        assertTrue(emitters.get(1).completed);
+        assertEquals(1, feed.stats().subscribers());
+        assertEquals(2, emitters.get(0).frames.size());
+        assertTrue(emitters.get(1).frames.isEmpty());
+    }
+
+    private static Board board(String name) {
+        Board board = new Board();
+        board.setId("b1");
+        board.setName(name);
+        board.setOwner("u1");
+        board.setLists(new ArrayList<>());
+        return board;
+    }
+
+    // Comillas simples para que los casos se lean sin escapes
+    private static String json(String text) {
+        return text.replace('\'', '"');
+    }
+
+    // Guarda cada evento tal como se escribiría en la respuesta
+    private final class RecordingEmitter extends SseEmitter {
+        private final List<String> frames = new ArrayList<>();
+        private final RuntimeException failure;
+        private boolean completed;
+
+        private RecordingEmitter(long timeoutMillis, RuntimeException failure) {
+            super(timeoutMillis);
+            this.failure = failure;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            if (failure != null) {
+                throw failure;
+            }
+            StringBuilder frame = new StringBuilder();
+            for (DataWithMediaType item : items) {
+                frame.append(item.getData() instanceof String text ? text : objectMapper.writeValueAsString(item.getData()));
+            }
+            frames.add(frame.toString());
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+    }
+}
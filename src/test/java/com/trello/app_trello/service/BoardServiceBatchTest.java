@@ -0,0 +1,197 @@
+package com.trello.app_trello.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.BuissnessLogic.BoardBatch;
+import com.trello.app_trello.BuissnessLogic.BoardBatchResult;
+import com.trello.app_trello.BuissnessLogic.BoardItems;
+import com.trello.app_trello.BuissnessLogic.Card;
+import com.trello.app_trello.repository.BoardMutation;
+import com.trello.app_trello.repository.BoardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BoardServiceBatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BoardRepository boardRepository = mock(BoardRepository.class);
+    private final BoardService boardService = new BoardService();
+    private final AtomicInteger writes = new AtomicInteger();
+    private final List<Board> indexed = new ArrayList<>();
+    private Board stored;
+    // Intentos que pierden contra otro escritor y se descartan antes del que se guarda
+    private int conflicts;
+
+    @BeforeEach
+    void setUp() {
+        CardSearchIndex searchIndex = new CardSearchIndex() {
+            @Override
+            public void index(Board board) {
+                indexed.add(copy(board));
+            }
+        };
+        ReflectionTestUtils.setField(boardService, "boardRepository", boardRepository);
+        ReflectionTestUtils.setField(boardService, "boardCache", mock(BoardCache.class));
+        ReflectionTestUtils.setField(boardService, "writeBehindBuffer", new WriteBehindBuffer());
+        ReflectionTestUtils.setField(boardService, "searchIndex", searchIndex);
+        ReflectionTestUtils.setField(boardService, "objectMapper", objectMapper);
+
+        stored = json("{'id':'b1','name':'Tablero','owner':'u1','lists':[{'id':'l1','title':'Todo','position':'V',"
+                + "'cards':[{'id':'c1','title':'Tarea','position':'V'}]}]}", Board.class);
+        // Como el repositorio: la mutación corre sobre una copia y se guarda solo si devuelve true
+        when(boardRepository.mutate(eq("b1"), any())).thenAnswer(invocation -> {
+            BoardMutation mutation = invocation.getArgument(1);
+            for (; conflicts > 0; conflicts--) {
+                mutation.apply(copy(stored));
+            }
+            Board board = copy(stored);
+            if (mutation.apply(board)) {
+                stored = copy(board);
+                writes.incrementAndGet();
+            }
+            return CompletableFuture.completedFuture(Optional.of(board));
+        });
+    }
+
+    @Test
+    void atomicBatchWritesNothingWhenAnOperationFails() {
+        BoardBatchResult result = apply("{'atomic':true,'operations':["
+                + "{'type':'addList','title':'Doing'},"
+                + "{'type':'addCard','listTitle':'Todo','card':{'title':'Nueva'}},"
+                + "{'type':'removeCard','listTitle':'Todo','cardId':'no-existe'}]}");
+
+        assertFalse(result.isApplied());
+        assertStatuses(result, 200, 200, 404);
+        assertNotNull(result.getResults().get(2).getMessage());
+        assertEquals(0, writes.get());
+        assertEquals(List.of("Todo"), titles(stored));
+        assertEquals(1, stored.getLists().get(0).getCards().size());
+        // Lo que se devuelve e indexa es el tablero sin los cambios del batch
+        assertEquals(List.of("Todo"), titles(indexed.get(indexed.size() - 1)));
+    }
+
+    @Test
+    void atomicBatchWritesEverythingOnceWhenAllSucceed() {
+        BoardBatchResult result = apply("{'atomic':true,'operations':["
+                + "{'type':'addList','title':'Doing'},"
+                + "{'type':'moveCard','cardId':'c1','targetListTitle':'Doing'}]}");
+
+        assertTrue(result.isApplied());
+        assertStatuses(result, 200, 200);
+        assertEquals(1, writes.get());
+        assertEquals(List.of("Todo", "Doing"), titles(stored));
+        assertTrue(stored.getLists().get(0).getCards().isEmpty());
+        assertEquals("c1", stored.getLists().get(1).getCards().get(0).getId());
+        assertEquals(result.getResults().get(0).getId(), stored.getLists().get(1).getId());
+    }
+
+    @Test
+    void nonAtomicBatchKeepsTheOperationsThatSucceeded() {
+        BoardBatchResult result = apply("{'atomic':false,'operations':["
+                + "{'type':'addList','title':'Doing'},"
+                + "{'type':'removeCard','listTitle':'Todo','cardId':'no-existe'},"
+                + "{'type':'addCard','listTitle':'Doing','card':{'title':'Nueva'}},"
+                + "{'type':'moveCard','targetListTitle':'Doing'},"
+                + "{'type':'addList','title':'Todo'}]}");
+
+        assertTrue(result.isApplied());
+        assertStatuses(result, 200, 404, 200, 400, 409);
+        assertNull(result.getResults().get(1).getId());
+        assertEquals(1, writes.get());
+        assertEquals(List.of("Todo", "Doing"), titles(stored));
+        List<Card> doing = stored.getLists().get(1).getCards();
+        assertEquals(1, doing.size());
+        assertEquals("Nueva", doing.get(0).getTitle());
+        assertEquals(result.getResults().get(2).getId(), doing.get(0).getId());
+    }
+
+    @Test
+    void nonAtomicBatchWithNothingAppliedDoesNotWrite() {
+        BoardBatchResult result = apply("{'atomic':false,'operations':["
+                + "{'type':'removeList','listTitle':'No existe'}]}");
+
+        assertTrue(result.isApplied());
+        assertStatuses(result, 404);
+        assertEquals(0, writes.get());
+    }
+
+    @Test
+    void retriedBatchReusesTheSameIds() {
+        conflicts = 2;
+
+        BoardBatchResult result = apply("{'atomic':true,'operations':["
+                + "{'type':'addCard','listTitle':'Todo','card':{'title':'Nueva'}}]}");
+
+        assertEquals(1, writes.get());
+        Card created = stored.getLists().get(0).getCards().get(1);
+        assertEquals(result.getResults().get(0).getId(), created.getId());
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedBatches() {
+        assertBadRequest("{'atomic':true,'operations':[]}");
+        assertBadRequest("{'atomic':true}");
+
+        StringBuilder operations = new StringBuilder();
+        for (int i = 0; i <= BoardService.MAX_BATCH_OPERATIONS; i++) {
+            operations.append(i == 0 ? "" : ",").append("{'type':'addList','title':'L").append(i).append("'}");
+        }
+        assertBadRequest("{'atomic':false,'operations':[" + operations + "]}");
+        assertEquals(0, writes.get());
+    }
+
+    private BoardBatchResult apply(String batch) {
+        return Futures.await(boardService.applyBatchAsync("b1", json(batch, BoardBatch.class)));
+    }
+
+    private void assertBadRequest(String batch) {
+        ResponseStatusException error = assertThrows(ResponseStatusException.class, () -> apply(batch));
+        assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+    }
+
+    private static void assertStatuses(BoardBatchResult result, int... statuses) {
+        assertEquals(statuses.length, result.getResults().size());
+        for (int i = 0; i < statuses.length; i++) {
+            BoardBatchResult.OperationResult operation = result.getResults().get(i);
+            assertEquals(i, operation.getIndex());
+            assertEquals(statuses[i], operation.getStatus(), "operación " + i);
+        }
+    }
+
+    private static List<String> titles(Board board) {
+        return BoardItems.lists(board).stream().map(com.trello.app_trello.BuissnessLogic.List::getTitle).toList();
+    }
+
+    private Board copy(Board board) {
+        return objectMapper.convertValue(board, Board.class);
+    }
+
+    // Comillas simples para que los casos se lean sin escapes
+    private <T> T json(String text, Class<T> type) {
+        try {
+            return objectMapper.readValue(text.replace('\'', '"'), type);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(text, e);
+        }
+    }
+}
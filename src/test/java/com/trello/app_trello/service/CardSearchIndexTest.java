@@ -0,0 +1,106 @@
+package com.trello.app_trello.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.BuissnessLogic.CardSearchHit;
+import com.trello.app_trello.BuissnessLogic.Page;
+import com.trello.app_trello.repository.BoardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CardSearchIndexTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BoardRepository boardRepository = mock(BoardRepository.class);
+    private final CardSearchIndex index = new CardSearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "boardRepository", boardRepository);
+    }
+
+    @Test
+    void buildsFromEveryPage() {
+        Board first = board("{'id':'b1','name':'Uno','owner':'u1','lists':[{'id':'l1','title':'Todo',"
+                + "'cards':[{'id':'c1','title':'Diseño del logo'}]}]}");
+        Board second = board("{'id':'b2','name':'Dos','owner':'u2','lists':[{'id':'l2','title':'Todo',"
+                + "'cards':[{'id':'c2','title':'Logo nuevo'}]}]}");
+        when(boardRepository.findPage(isNull(), anyInt(), isNull()))
+                .thenReturn(CompletableFuture.completedFuture(new Page<>(List.of(first), "b1")));
+        when(boardRepository.findPage(isNull(), anyInt(), any(String.class)))
+                .thenReturn(CompletableFuture.completedFuture(new Page<>(List.of(second), null)));
+
+        index.build();
+
+        assertTrue(index.stats().ready());
+        assertEquals(2, index.stats().boards());
+        assertEquals(List.of("c1", "c2"), cardIds(index.search("logo", null, 10)));
+        assertEquals(List.of("c1"), cardIds(index.search("dise", "u1", 10)));
+    }
+
+    @Test
+    void aRepositoryThatThrowsDoesNotAbortTheBuild() {
+        when(boardRepository.findPage(any(), anyInt(), any()))
+                .thenThrow(new IllegalStateException("Firebase no está inicializado"));
+
+        assertDoesNotThrow(index::build);
+
+        // Queda listo con lo que llegue por las escrituras
+        assertTrue(index.stats().ready());
+        index.index(board("{'id':'b1','name':'Uno','owner':'u1','lists':[{'id':'l1','title':'Todo',"
+                + "'cards':[{'id':'c1','title':'Logo'}]}]}"));
+        assertEquals(List.of("c1"), cardIds(index.search("logo", null, 10)));
+    }
+
+    @Test
+    void indexesARepeatedCardIdOnce() {
+        String board = "{'id':'b1','name':'Uno','owner':'u1','lists':["
+                + "{'id':'l1','title':'Todo','cards':[{'id':'c1','title':'Logo','assignedUsers':['ana']}]},"
+                + "{'id':'l2','title':'Hecho','cards':[{'id':'c1','title':'Logo %s','assignedUsers':['ana']}]}]}";
+
+        // Cada vez cambia la copia repetida, así se vuelve a procesar en cada actualización
+        for (int i = 0; i < 3; i++) {
+            index.index(board(board.formatted("v" + i)));
+
+            CardSearchIndex.SearchStats stats = index.stats();
+            assertEquals(1, stats.cards());
+            assertEquals(List.of("c1"), cardIds(index.search("logo", null, 10)));
+            assertEquals("l1", index.search("logo", null, 10).get(0).getListId());
+            assertEquals(1, index.assignedCards("ana", 10, null).getItems().size());
+        }
+
+        index.remove("b1");
+
+        CardSearchIndex.SearchStats stats = index.stats();
+        assertEquals(0, stats.cards());
+        assertEquals(0, stats.terms());
+        assertEquals(0, stats.assignees());
+    }
+
+    private static List<String> cardIds(List<CardSearchHit> hits) {
+        return hits.stream().map(hit -> hit.getCard().getId()).toList();
+    }
+
+    // Comillas simples para que los casos se lean sin escapes
+    private Board board(String text) {
+        try {
+            return objectMapper.readValue(text.replace('\'', '"'), Board.class);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(text, e);
+        }
+    }
+}
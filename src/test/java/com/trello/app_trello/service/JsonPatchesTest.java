@@ -0,0 +1,119 @@
+package com.trello.app_trello.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonPatchesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void appendsWithDashAndInsertsAtSize() {
+        JsonNode document = json("{'a':[1,2]}");
+
+        assertEquals(json("{'a':[1,2,3]}"), patch(document, "[{'op':'add','path':'/a/-','value':3}]"));
+        assertEquals(json("{'a':[1,2,3]}"), patch(document, "[{'op':'add','path':'/a/2','value':3}]"));
+        assertEquals(json("{'a':[0,1,2]}"), patch(document, "[{'op':'add','path':'/a/0','value':0}]"));
+        assertStatus(HttpStatus.BAD_REQUEST, document, "[{'op':'add','path':'/a/3','value':3}]");
+    }
+
+    @Test
+    void rejectsIndexesPastTheEndForAnythingButAdd() {
+        JsonNode document = json("{'a':[1,2]}");
+
+        assertStatus(HttpStatus.BAD_REQUEST, document, "[{'op':'remove','path':'/a/2'}]");
+        assertStatus(HttpStatus.BAD_REQUEST, document, "[{'op':'replace','path':'/a/2','value':3}]");
+        assertStatus(HttpStatus.BAD_REQUEST, document, "[{'op':'remove','path':'/a/-'}]");
+        assertStatus(HttpStatus.BAD_REQUEST, document, "[{'op':'test','path':'/a/-','value':2}]");
+        assertStatus(HttpStatus.BAD_REQUEST, document, "[{'op':'add','path':'/a/01','value':3}]");
+        assertStatus(HttpStatus.BAD_REQUEST, document, "[{'op':'add','path':'/a/-1','value':3}]");
+    }
+
+    @Test
+    void handlesEmptyArrays() {
+        JsonNode document = json("{'a':[]}");
+
+        assertEquals(json("{'a':[1]}"), patch(document, "[{'op':'add','path':'/a/-','value':1}]"));
+        assertEquals(json("{'a':[1]}"), patch(document, "[{'op':'add','path':'/a/0','value':1}]"));
+        assertStatus(HttpStatus.BAD_REQUEST, document, "[{'op':'remove','path':'/a/0'}]");
+        assertStatus(HttpStatus.BAD_REQUEST, document, "[{'op':'replace','path':'/a/0','value':1}]");
+        assertStatus(HttpStatus.BAD_REQUEST, document, "[{'op':'copy','from':'/a/0','path':'/b'}]");
+    }
+
+    @Test
+    void refusesToMoveIntoItsOwnSubtree() {
+        JsonNode document = json("{'a':{'b':{'c':1}},'ab':2}");
+
+        assertStatus(HttpStatus.BAD_REQUEST, document, "[{'op':'move','from':'/a','path':'/a/b'}]");
+        assertStatus(HttpStatus.BAD_REQUEST, document, "[{'op':'move','from':'/a','path':'/a/b/c/d'}]");
+        // Un prefijo de texto no es un subárbol, y moverse a sí mismo no cambia nada
+        assertEquals(json("{'a':{'b':{'c':1}},'abc':2}"), patch(document, "[{'op':'move','from':'/ab','path':'/abc'}]"));
+        assertEquals(document, patch(document, "[{'op':'move','from':'/a','path':'/a'}]"));
+        assertEquals(json("{'a':{'b':{}},'c':1,'ab':2}"), patch(document, "[{'op':'move','from':'/a/b/c','path':'/c'}]"));
+    }
+
+    @Test
+    void movesWithinAnArrayUsingIndexesAfterRemoval() {
+        JsonNode document = json("{'a':[1,2,3]}");
+
+        assertEquals(json("{'a':[2,3,1]}"), patch(document, "[{'op':'move','from':'/a/0','path':'/a/2'}]"));
+        assertEquals(json("{'a':[2,3,1]}"), patch(document, "[{'op':'move','from':'/a/0','path':'/a/-'}]"));
+    }
+
+    @Test
+    void failingTestIsAConflictAndNothingIsApplied() {
+        JsonNode document = json("{'name':'Tablero','lists':[]}");
+
+        assertStatus(HttpStatus.CONFLICT, document,
+                "[{'op':'add','path':'/lists/-','value':'x'},{'op':'test','path':'/name','value':'Otro'}]");
+        assertEquals(json("{'name':'Tablero','lists':[]}"), document);
+        assertEquals(json("{'name':'Nuevo','lists':[]}"),
+                patch(document, "[{'op':'test','path':'/name','value':'Tablero'},{'op':'replace','path':'/name','value':'Nuevo'}]"));
+        // Un test sobre algo que no existe es un patch inválido, no un conflicto
+        assertStatus(HttpStatus.BAD_REQUEST, document, "[{'op':'test','path':'/owner','value':'u1'}]");
+    }
+
+    @Test
+    void rejectsMalformedOperations() {
+        JsonNode document = json("{'a':1}");
+
+        assertStatus(HttpStatus.BAD_REQUEST, document, "{'op':'add','path':'/b','value':1}");
+        assertStatus(HttpStatus.BAD_REQUEST, document, "[{'op':'add','path':'/b'}]");
+        assertStatus(HttpStatus.BAD_REQUEST, document, "[{'op':'rename','path':'/a'}]");
+        assertStatus(HttpStatus.BAD_REQUEST, document, "[{'op':'remove','path':'a'}]");
+        assertStatus(HttpStatus.BAD_REQUEST, document, "[{'op':'remove','path':''}]");
+    }
+
+    @Test
+    void mergePatchRemovesNullsAndReplacesNonObjects() {
+        JsonNode document = json("{'name':'Tablero','meta':{'color':'rojo','tags':['a']}}");
+
+        assertEquals(json("{'name':'Nuevo','meta':{'tags':['b']}}"),
+                JsonPatches.mergePatch(document, json("{'name':'Nuevo','meta':{'color':null,'tags':['b']}}")));
+        assertEquals(json("{'name':'Tablero','meta':{'color':'rojo','tags':['a']}}"), document);
+    }
+
+    private JsonNode patch(JsonNode document, String operations) {
+        return JsonPatches.jsonPatch(document, json(operations));
+    }
+
+    private void assertStatus(HttpStatus status, JsonNode document, String operations) {
+        ResponseStatusException error = assertThrows(ResponseStatusException.class, () -> patch(document, operations));
+        assertEquals(status, error.getStatusCode());
+    }
+
+    // Comillas simples para que los casos se lean sin escapes
+    private JsonNode json(String text) {
+        try {
+            return objectMapper.readTree(text.replace('\'', '"'));
+        } catch (Exception e) {
+            throw new IllegalArgumentException(text, e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.trello.app_trello.service;
+
+import com.trello.app_trello.BuissnessLogic.Board;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadCoalescingTest {
+
+    private final ReadCoalescing coalescing = new ReadCoalescing();
+    // Generación de la última invalidación de cada tablero, como en BoardCache
+    private final Map<String, Long> stamps = new HashMap<>();
+    private final AtomicInteger reads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        BoardCache boardCache = new BoardCache() {
+            @Override
+            public boolean unchangedSince(String id, long readGeneration) {
+                return stamps.getOrDefault(id, 0L) <= readGeneration;
+            }
+        };
+        ReflectionTestUtils.setField(coalescing, "enabled", true);
+        ReflectionTestUtils.setField(coalescing, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(coalescing, "boardCache", boardCache);
+        coalescing.init();
+    }
+
+    @Test
+    void sharesTheReadWhileTheBoardIsUnchanged() {
+        CompletableFuture<Optional<Board>> storage = new CompletableFuture<>();
+        CompletableFuture<Optional<Board>> first = coalescing.board("b1", 0, () -> read(storage));
+        CompletableFuture<Optional<Board>> second = coalescing.board("b1", 0, () -> read(storage));
+
+        Board board = board("Tablero");
+        storage.complete(Optional.of(board));
+
+        assertSame(board, first.join().orElseThrow());
+        assertSame(board, second.join().orElseThrow());
+        assertEquals(1, reads.get());
+        ReadCoalescing.CoalescingStats stats = coalescing.stats();
+        assertEquals(1, stats.boardReads());
+        assertEquals(1, stats.boardCoalesced());
+        assertEquals(0, stats.boardRereads());
+        assertEquals(0, stats.boardInFlight());
+    }
+
+    @Test
+    void rereadsWhenTheBoardChangesDuringTheRead() {
+        CompletableFuture<Optional<Board>> storage = new CompletableFuture<>();
+        CompletableFuture<Optional<Board>> first = coalescing.board("b1", 0, () -> read(storage));
+        Board created = board("Tablero");
+        CompletableFuture<Optional<Board>> second = coalescing.board("b1", 0,
+                () -> read(CompletableFuture.completedFuture(Optional.of(created))));
+
+        // Se crea mientras la lectura está en curso: esa lectura ya no lo encuentra
+        stamps.put("b1", 1L);
+        storage.complete(Optional.empty());
+
+        assertTrue(first.join().isEmpty());
+        assertSame(created, second.join().orElseThrow());
+        assertEquals(2, reads.get());
+        ReadCoalescing.CoalescingStats stats = coalescing.stats();
+        assertEquals(1, stats.boardReads());
+        assertEquals(1, stats.boardCoalesced());
+        assertEquals(1, stats.boardRereads());
+    }
+
+    private CompletableFuture<Optional<Board>> read(CompletableFuture<Optional<Board>> result) {
+        reads.incrementAndGet();
+        return result;
+    }
+
+    private static Board board(String name) {
+        Board board = new Board();
+        board.setId("b1");
+        board.setName(name);
+        return board;
+    }
+}
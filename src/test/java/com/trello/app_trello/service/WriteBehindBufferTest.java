@@ -0,0 +1,198 @@
+package com.trello.app_trello.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trello.app_trello.BuissnessLogic.Board;
+import com.trello.app_trello.BuissnessLogic.BoardItems;
+import com.trello.app_trello.repository.BoardMutation;
+import com.trello.app_trello.repository.BoardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WriteBehindBufferTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BoardRepository boardRepository = mock(BoardRepository.class);
+    private final WriteBehindBuffer buffer = new WriteBehindBuffer();
+    private final AtomicInteger writes = new AtomicInteger();
+    // Errores que devuelven las próximas escrituras, en orden
+    private final Deque<RuntimeException> failures = new ArrayDeque<>();
+    private Board stored;
+
+    @BeforeEach
+    void setUp() {
+        // Sin start(): los flush se piden a mano en cada test
+        ReflectionTestUtils.setField(buffer, "enabled", true);
+        ReflectionTestUtils.setField(buffer, "maxPending", 100);
+        ReflectionTestUtils.setField(buffer, "idleEvictionSeconds", 60L);
+        ReflectionTestUtils.setField(buffer, "boardRepository", boardRepository);
+        ReflectionTestUtils.setField(buffer, "objectMapper", objectMapper);
+
+        stored = new Board();
+        stored.setId("b1");
+        stored.setName("Tablero");
+        stored.setLists(new ArrayList<>());
+        when(boardRepository.findById("b1")).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(Optional.of(copy(stored))));
+        when(boardRepository.mutate(eq("b1"), any())).thenAnswer(invocation -> {
+            writes.incrementAndGet();
+            if (!failures.isEmpty()) {
+                return CompletableFuture.failedFuture(failures.poll());
+            }
+            BoardMutation mutation = invocation.getArgument(1);
+            Board board = copy(stored);
+            if (mutation.apply(board)) {
+                stored = copy(board);
+            }
+            return CompletableFuture.completedFuture(Optional.of(board));
+        });
+    }
+
+    @Test
+    void coalescesSubmittedMutationsIntoOneWrite() {
+        for (int i = 1; i <= 5; i++) {
+            Board result = submit(addList("L" + i));
+            assertEquals(i, result.getLists().size());
+        }
+        assertEquals(0, writes.get());
+        assertEquals(5, buffer.get("b1").orElseThrow().getLists().size());
+
+        Futures.await(buffer.flush("b1"));
+
+        assertEquals(1, writes.get());
+        assertEquals(List.of("L1", "L2", "L3", "L4", "L5"), titles(stored));
+        WriteBehindBuffer.WriteBehindStats stats = buffer.stats();
+        assertEquals(5, stats.accepted());
+        assertEquals(0, stats.pending());
+        assertEquals(1, stats.flushes());
+        assertEquals(5.0, stats.coalescingRatio(), 0.001);
+    }
+
+    @Test
+    void mutationsThatChangeNothingAreNotQueued() {
+        submit(board -> false);
+
+        Futures.await(buffer.flush("b1"));
+
+        assertEquals(0, writes.get());
+        assertEquals(0, buffer.stats().pending());
+    }
+
+    @Test
+    void rejectsWith503OnceMaxPendingIsReached() {
+        ReflectionTestUtils.setField(buffer, "maxPending", 2);
+        submit(addList("L1"));
+        submit(addList("L2"));
+
+        ResponseStatusException error = assertThrows(ResponseStatusException.class, () -> submit(addList("L3")));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, error.getStatusCode());
+        // La rechazada no quedó aplicada en la copia
+        assertEquals(List.of("L1", "L2"), titles(buffer.get("b1").orElseThrow()));
+        assertEquals(1, buffer.stats().rejected());
+        assertEquals(2, buffer.stats().pending());
+
+        // Al escribirse lo pendiente vuelve a haber lugar
+        Futures.await(buffer.flush("b1"));
+        submit(addList("L3"));
+        Futures.await(buffer.flush("b1"));
+        assertEquals(List.of("L1", "L2", "L3"), titles(stored));
+    }
+
+    @Test
+    void requeuesTheBatchWhenTheWriteFails() {
+        submit(addList("L1"));
+        submit(addList("L2"));
+        failures.add(new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Firestore no responde"));
+
+        // El flush termina sin error aunque la escritura falle: se reintenta más adelante
+        Futures.await(buffer.flush("b1"));
+
+        assertEquals(1, writes.get());
+        assertTrue(stored.getLists().isEmpty());
+        assertEquals(1, buffer.stats().flushFailures());
+        assertEquals(2, buffer.stats().pending());
+        assertEquals(List.of("L1", "L2"), titles(buffer.get("b1").orElseThrow()));
+
+        // Lo reencolado va antes de lo que llegó después
+        submit(addList("L3"));
+        Futures.await(buffer.flush("b1"));
+
+        assertEquals(2, writes.get());
+        assertEquals(List.of("L1", "L2", "L3"), titles(stored));
+        assertEquals(0, buffer.stats().pending());
+    }
+
+    @Test
+    void dropsMutationsThatNoLongerApplyWhenReplayed() {
+        submit(addList("L1"));
+        submit(board -> {
+            // Solo vale mientras el tablero se llame "Tablero"
+            if (!"Tablero".equals(board.getName())) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "El tablero cambió de nombre");
+            }
+            return addList("L2").apply(board);
+        });
+        submit(addList("L3"));
+        // Otra instancia lo renombra antes de que se escriba
+        stored.setName("Renombrado");
+
+        Futures.await(buffer.flush("b1"));
+
+        assertEquals(1, writes.get());
+        assertEquals(List.of("L1", "L3"), titles(stored));
+        assertEquals(1, buffer.stats().replayFailures());
+        assertEquals(0, buffer.stats().pending());
+    }
+
+    @Test
+    void discardDropsThePendingMutations() {
+        submit(addList("L1"));
+
+        buffer.discard("b1");
+        Futures.await(buffer.flush("b1"));
+
+        assertEquals(0, writes.get());
+        assertEquals(0, buffer.stats().pending());
+        assertTrue(buffer.get("b1").isEmpty());
+    }
+
+    private Board submit(BoardMutation mutation) {
+        return Futures.await(buffer.submit("b1", mutation)).orElseThrow();
+    }
+
+    private static BoardMutation addList(String title) {
+        return board -> {
+            com.trello.app_trello.BuissnessLogic.List list = new com.trello.app_trello.BuissnessLogic.List();
+            list.setTitle(title);
+            BoardItems.addList(board, list);
+            return true;
+        };
+    }
+
+    private static List<String> titles(Board board) {
+        return BoardItems.lists(board).stream().map(com.trello.app_trello.BuissnessLogic.List::getTitle).toList();
+    }
+
+    private Board copy(Board board) {
+        return objectMapper.convertValue(board, Board.class);
+    }
+}